@@ -0,0 +1,78 @@
+package drawing.canvas;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scalar vs Vector API row scans on maximal (1000-wide) rows. Run with the jdk.incubator.vector module.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RowOpsBenchmark {
+
+    private static final int WIDTH = 1000;
+
+    private final char[] row = new char[WIDTH];
+    private final char[] sameRow = new char[WIDTH];
+    private final char[] scratch = new char[WIDTH];
+
+    @Setup
+    public void setUp() {
+        Arrays.fill(row, ' ');
+        row[WIDTH - 1] = 'x';
+        System.arraycopy(row, 0, sameRow, 0, WIDTH);
+    }
+
+    @Benchmark
+    public int scalarRunEnd() {
+        return RowOps.scalarRunEnd(row, 0, WIDTH, ' ');
+    }
+
+    @Benchmark
+    public int vectorRunEnd() {
+        return VectorRowOps.runEnd(row, 0, WIDTH, ' ');
+    }
+
+    @Benchmark
+    public int scalarRunStart() {
+        return RowOps.scalarRunStart(row, 0, WIDTH - 1, ' ');
+    }
+
+    @Benchmark
+    public int vectorRunStart() {
+        return VectorRowOps.runStart(row, 0, WIDTH - 1, ' ');
+    }
+
+    @Benchmark
+    public char[] scalarReplace() {
+        System.arraycopy(row, 0, scratch, 0, WIDTH);
+        RowOps.scalarReplace(scratch, 0, WIDTH, ' ', 'o');
+        return scratch;
+    }
+
+    @Benchmark
+    public char[] vectorReplace() {
+        System.arraycopy(row, 0, scratch, 0, WIDTH);
+        VectorRowOps.replace(scratch, 0, WIDTH, ' ', 'o');
+        return scratch;
+    }
+
+    @Benchmark
+    public boolean scalarEquals() {
+        return RowOps.scalarEquals(row, sameRow);
+    }
+
+    @Benchmark
+    public boolean vectorEquals() {
+        return VectorRowOps.equals(row, sameRow);
+    }
+}
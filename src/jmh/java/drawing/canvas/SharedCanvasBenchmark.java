@@ -0,0 +1,62 @@
+package drawing.canvas;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * N writers (default 4, override with -t) drawing and undoing full-width lines on one shared canvas.
+ * Each writer on its own stripe vs all writers on distinct rows of a single stripe: same work, only the lock differs.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(4)
+public class SharedCanvasBenchmark {
+
+    private static final int WIDTH = 1000;
+    private static final int MAX_WRITERS = SharedCanvas.STRIPE_ROWS;
+
+    @State(Scope.Benchmark)
+    public static class Shared {
+        final SharedCanvas canvas = new SharedCanvas(WIDTH, MAX_WRITERS * SharedCanvas.STRIPE_ROWS);
+        final AtomicInteger writers = new AtomicInteger();
+    }
+
+    @State(Scope.Thread)
+    public static class Writer {
+        SharedSession session;
+        int ownStripeRow;
+        int sharedStripeRow;
+
+        @Setup
+        public void setUp(Shared shared) {
+            var index = shared.writers.getAndIncrement() % MAX_WRITERS;
+            session = new SharedSession(shared.canvas);
+            ownStripeRow = index * SharedCanvas.STRIPE_ROWS + 1;
+            sharedStripeRow = index + 1;
+        }
+    }
+
+    @Benchmark
+    public void disjointStripes(Writer writer) {
+        drawAndUndo(writer.session, writer.ownStripeRow);
+    }
+
+    @Benchmark
+    public void sameStripe(Writer writer) {
+        drawAndUndo(writer.session, writer.sharedStripeRow);
+    }
+
+    private static void drawAndUndo(SharedSession session, int row) {
+        session.drawLine(new Point(1, row), new Point(WIDTH, row));
+        session.undo();
+    }
+}
@@ -0,0 +1,66 @@
+package drawing.history;
+
+import drawing.canvas.Canvas;
+import drawing.canvas.CanvasMemento;
+import drawing.canvas.Point;
+import drawing.command.RedoCommand;
+import drawing.command.UndoCommand;
+import drawing.context.DrawingContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stress benchmark: holding U/Z on a maximal (1000x1000) canvas.
+ * Compares ownership transfer against the previous copy-on-undo protocol (two full copies per step).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UndoRedoBenchmark {
+
+    private static final int SIZE = 1000;
+
+    private final UndoCommand undo = new UndoCommand();
+    private final RedoCommand redo = new RedoCommand();
+
+    private DrawingContext context;
+    private Canvas canvas;
+    private CanvasMemento otherState;
+
+    @Setup
+    public void setUp() {
+        context = new DrawingContext();
+        context.setCanvas(new Canvas(SIZE, SIZE));
+        context.getHistory().saveState(context.getCanvas());
+        context.getCanvas().drawLine(new Point(1, SIZE / 2), new Point(SIZE, SIZE / 2));
+
+        canvas = new Canvas(SIZE, SIZE);
+        otherState = CanvasMemento.from(canvas);
+        canvas.drawLine(new Point(1, SIZE / 2), new Point(SIZE, SIZE / 2));
+    }
+
+    @Benchmark
+    public Canvas undoRedo() {
+        undo.execute(context);
+        redo.execute(context);
+        return context.getCanvas();
+    }
+
+    /** Previous protocol: snapshot the live canvas, then restore a copy of the popped state. */
+    @Benchmark
+    public Canvas copyingUndoRedo() {
+        for (var step = 0; step < 2; step++) {
+            var current = CanvasMemento.from(canvas);
+            canvas = otherState.restore();
+            otherState = current;
+        }
+        return canvas;
+    }
+}
@@ -1,6 +1,10 @@
 package drawing;
 
+import drawing.batch.BatchRunner;
+import drawing.canvas.SharedCanvas;
 import drawing.context.DrawingContext;
+import drawing.daemon.DrawingClient;
+import drawing.daemon.DrawingDaemon;
 import drawing.exception.DrawingException;
 import drawing.io.Console;
 import drawing.io.SystemConsole;
@@ -12,31 +16,90 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Scanner;
 
+import static drawing.canvas.DrawingConstants.MAX_CANVAS_HEIGHT;
+import static drawing.canvas.DrawingConstants.MAX_CANVAS_WIDTH;
+
 /**
  * Application entry point. Pattern: REPL (Read-Eval-Print Loop).
  * Uses Dependency Injection for Console (testability).
+ * Also starts the resident daemon ({@code --daemon <socket>}, or {@code --shared <socket> <w> <h>} for one canvas
+ * drawn by all clients) or talks to it ({@code --client <socket> [file]}), and runs script batches ({@code --batch}).
  */
 public final class DrawingApp {
 
+    private static final String USAGE = "Usage: drawing [input-file] | --daemon <socket>"
+            + " | --shared <socket> <width> <height> | --client <socket> [input-file]"
+            + " | --batch <dir|glob> <output-dir> [threads]";
+
     private final Scanner scanner;
     private final boolean interactive;
     private final Console console;
     private final CommandParser parser = new CommandParser();
     private final DrawingContext context;
+    private final boolean renderEachCommand;
+    private int errorCount;
 
     public DrawingApp(Scanner scanner, boolean interactive) {
         this(scanner, interactive, new SystemConsole());
     }
 
     public DrawingApp(Scanner scanner, boolean interactive, Console console) {
+        this(scanner, interactive, console, true);
+    }
+
+    /** renderEachCommand=false skips echoing the canvas (batch runs only need the final state). */
+    public DrawingApp(Scanner scanner, boolean interactive, Console console, boolean renderEachCommand) {
+        this(scanner, interactive, console, renderEachCommand, null);
+    }
+
+    /** File names in commands resolve against {@code workingDirectory} (null: this process's). */
+    public DrawingApp(Scanner scanner, boolean interactive, Console console, boolean renderEachCommand,
+                      Path workingDirectory) {
         this.scanner = scanner;
         this.interactive = interactive;
         this.console = console;
-        this.context = new DrawingContext(console);
+        this.context = new DrawingContext(console, workingDirectory);
+        this.renderEachCommand = renderEachCommand;
     }
 
+    public DrawingContext getContext() {
+        return context;
+    }
+
+    public int getErrorCount() {
+        return errorCount;
+    }
+
+    /**
+     * Waits for pending saves before returning, so callers (batch, daemon) can rely on the files; a mapped canvas
+     * is flushed to its file as well.
+     */
     public void run() {
+        try {
+            loop();
+        } finally {
+            context.getSaver().awaitIdle();
+            reportSaves();
+            flushCanvas();
+        }
+    }
+
+    private void flushCanvas() {
+        var canvas = context.getCanvas();
+        if (canvas == null) {
+            return;
+        }
+        try {
+            canvas.flush();
+        } catch (DrawingException e) {
+            errorCount++;
+            console.println("Error: " + e.getMessage());
+        }
+    }
+
+    private void loop() {
         while (true) {
+            reportSaves();
             if (interactive) {
                 console.print("enter command: ");
             }
@@ -71,22 +134,45 @@ public final class DrawingApp {
                     throw e;
                 }
 
-                if (context.getCanvas() != null) {
-                    console.print(context.getRenderer().render(context.getCanvas()));
+                // Scripts must print the same output every run: report a save right after its S command
+                if (!interactive) {
+                    context.getSaver().awaitIdle();
+                    reportSaves();
+                }
+
+                if (renderEachCommand && context.getCanvas() != null) {
+                    console.printFrame(context.getRenderer().renderRows(context.getCanvas(), context.getViewport()));
                 }
 
             } catch (DrawingException e) {
+                errorCount++;
                 console.println("Error: " + e.getMessage());
             }
         }
     }
 
+    /** Completion notices of background saves, printed from this thread (the writer never touches the console). */
+    private void reportSaves() {
+        for (var notice : context.getSaver().drainNotices()) {
+            if (notice.failed()) {
+                errorCount++;
+                console.println("Error: " + notice.message());
+            } else {
+                console.println(notice.message());
+            }
+        }
+    }
+
     public static void main(String[] args) {
-        var console = new SystemConsole();
+        var console = SystemConsole.stdout();
         try {
-            var source = resolveInput(args);
-            try (var stream = source.stream(); var scanner = new Scanner(stream)) {
-                new DrawingApp(scanner, source.interactive(), console).run();
+            var mode = args.length == 0 ? "" : args[0];
+            switch (mode) {
+                case "--daemon" -> runDaemon(args);
+                case "--shared" -> runSharedDaemon(args);
+                case "--client" -> runClient(args);
+                case "--batch" -> runBatch(args, console);
+                default -> runLocal(args, console);
             }
         } catch (IOException e) {
             console.printError("Error: " + e.getMessage());
@@ -94,6 +180,73 @@ public final class DrawingApp {
         }
     }
 
+    private static void runLocal(String[] args, Console console) throws IOException {
+        var source = resolveInput(args);
+        try (var stream = source.stream(); var scanner = new Scanner(stream)) {
+            new DrawingApp(scanner, source.interactive(), console).run();
+        }
+    }
+
+    private static void runDaemon(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IOException(USAGE);
+        }
+        try (var daemon = DrawingDaemon.bind(Path.of(args[1]))) {
+            daemon.serve();
+        }
+    }
+
+    private static void runSharedDaemon(String[] args) throws IOException {
+        if (args.length != 4) {
+            throw new IOException(USAGE);
+        }
+        var width = parsePositive(args[2], "width");
+        var height = parsePositive(args[3], "height");
+        if (width > MAX_CANVAS_WIDTH || height > MAX_CANVAS_HEIGHT) {
+            throw new IOException("Canvas size exceeds maximum allowed (%dx%d)".formatted(MAX_CANVAS_WIDTH,
+                    MAX_CANVAS_HEIGHT));
+        }
+        try (var daemon = DrawingDaemon.bindShared(Path.of(args[1]), new SharedCanvas(width, height))) {
+            daemon.serve();
+        }
+    }
+
+    private static void runClient(String[] args) throws IOException {
+        if (args.length != 2 && args.length != 3) {
+            throw new IOException(USAGE);
+        }
+        var script = args.length == 3 ? resolveInput(new String[]{args[2]}).stream() : System.in;
+        try (script) {
+            DrawingClient.send(Path.of(args[1]), script, System.out);
+        }
+    }
+
+    private static void runBatch(String[] args, Console console) throws IOException {
+        if (args.length != 3 && args.length != 4) {
+            throw new IOException(USAGE);
+        }
+        var threads = args.length == 4
+                ? parsePositive(args[3], "threads")
+                : Runtime.getRuntime().availableProcessors();
+        var summary = new BatchRunner(threads).run(BatchRunner.resolveScripts(args[1]), Path.of(args[2]));
+        console.print(summary.format());
+        if (summary.failedCount() > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static int parsePositive(String value, String name) throws IOException {
+        try {
+            var number = Integer.parseInt(value);
+            if (number > 0) {
+                return number;
+            }
+        } catch (NumberFormatException ignore) {
+            // Reported below together with non-positive values
+        }
+        throw new IOException(name + " must be a positive number");
+    }
+
     private static InputSource resolveInput(String[] args) throws IOException {
         if (args.length == 0) {
             return new InputSource(System.in, true);
@@ -105,7 +258,7 @@ public final class DrawingApp {
             }
             return new InputSource(Files.newInputStream(path), false);
         }
-        throw new IOException("Usage: drawing [input-file]");
+        throw new IOException(USAGE);
     }
 
     private record InputSource(InputStream stream, boolean interactive) {
@@ -0,0 +1,11 @@
+package drawing.batch;
+
+import java.nio.file.Path;
+
+/** Outcome of one script. failure is null when the final canvas was saved. */
+public record BatchResult(Path script, Path output, long nanos, int errorCount, String failure) {
+
+    public boolean failed() {
+        return failure != null;
+    }
+}
@@ -0,0 +1,95 @@
+package drawing.batch;
+
+import drawing.DrawingApp;
+import drawing.command.SaveCommand;
+import drawing.exception.DrawingException;
+import drawing.io.NullConsole;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+/**
+ * Runs many independent scripts in one JVM. Each script gets its own DrawingApp/DrawingContext on a bounded
+ * work-stealing (ForkJoin) pool, so throughput scales with cores instead of one JVM per script.
+ * The final canvas of every script is written through SaveCommand to {@code <output-dir>/<script>.out};
+ * the script only counts as done once its background save has finished.
+ */
+public final class BatchRunner {
+
+    private final int parallelism;
+
+    public BatchRunner(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /** A directory (all regular files) or a file-name glob such as {@code scripts/*.txt}. Sorted by name. */
+    public static List<Path> resolveScripts(String pattern) throws IOException {
+        var path = Path.of(pattern);
+        var directory = Files.isDirectory(path) ? path : path.toAbsolutePath().getParent();
+        var matcher = Files.isDirectory(path) ? null
+                : FileSystems.getDefault().getPathMatcher("glob:" + path.getFileName());
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(f -> matcher == null || matcher.matches(f.getFileName()))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    public BatchSummary run(List<Path> scripts, Path outputDir) throws IOException {
+        Files.createDirectories(outputDir);
+        var start = System.nanoTime();
+        var pool = Executors.newWorkStealingPool(parallelism);
+        try {
+            var tasks = new ArrayList<Callable<BatchResult>>();
+            for (var script : scripts) {
+                tasks.add(() -> runScript(script, outputDir.resolve(script.getFileName() + ".out")));
+            }
+            var results = new ArrayList<BatchResult>();
+            for (var future : pool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+            return new BatchSummary(results, System.nanoTime() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Batch interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Batch worker failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private BatchResult runScript(Path script, Path output) {
+        var start = System.nanoTime();
+        try (var scanner = new Scanner(Files.newInputStream(script))) {
+            var app = new DrawingApp(scanner, false, new NullConsole(), false);
+            app.run();
+            var context = app.getContext();
+            if (context.getCanvas() == null) {
+                return new BatchResult(script, output, System.nanoTime() - start, app.getErrorCount(),
+                        "no canvas at end of script");
+            }
+            new SaveCommand(output.toString()).execute(context);
+            context.getSaver().awaitIdle();
+            for (var notice : context.getSaver().drainNotices()) {
+                if (notice.failed()) {
+                    return new BatchResult(script, output, System.nanoTime() - start, app.getErrorCount(),
+                            notice.message());
+                }
+            }
+            return new BatchResult(script, output, System.nanoTime() - start, app.getErrorCount(), null);
+        } catch (IOException | DrawingException e) {
+            return new BatchResult(script, output, System.nanoTime() - start, 0, e.getMessage());
+        }
+    }
+}
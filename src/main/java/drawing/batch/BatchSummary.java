@@ -0,0 +1,28 @@
+package drawing.batch;
+
+import java.util.List;
+
+/** Per-script timings and failures, in input order. Command errors inside a script are reported, not fatal. */
+public record BatchSummary(List<BatchResult> results, long wallNanos) {
+
+    public long failedCount() {
+        return results.stream().filter(BatchResult::failed).count();
+    }
+
+    public String format() {
+        var sb = new StringBuilder();
+        var busyNanos = 0L;
+        for (var r : results) {
+            busyNanos += r.nanos();
+            sb.append("%-40s %8.2f ms  ".formatted(r.script().getFileName(), r.nanos() / 1e6));
+            sb.append(r.failed() ? "FAILED: " + r.failure() : "OK -> " + r.output());
+            if (r.errorCount() > 0) {
+                sb.append(" (%d command errors)".formatted(r.errorCount()));
+            }
+            sb.append('\n');
+        }
+        sb.append("%d scripts, %d failed, wall %.2f ms, script time %.2f ms%n"
+                .formatted(results.size(), failedCount(), wallNanos / 1e6, busyNanos / 1e6));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,155 @@
+package drawing.canvas;
+
+import java.util.Arrays;
+
+import static drawing.canvas.DrawingConstants.EMPTY_CHAR;
+import static drawing.canvas.DrawingConstants.LINE_CHAR;
+
+/**
+ * One bit per pixel for line art (EMPTY_CHAR = 0, LINE_CHAR = 1): 1000x1000 takes 125 KB instead of 2 MB.
+ * Each row starts on a word boundary, so spans are filled with whole-word masks.
+ * The first other color (e.g. a bucket fill) promotes the canvas to palette storage.
+ */
+final class BitPixelStore implements PixelStore {
+
+    private final int width;
+    private final int height;
+    private final int wordsPerRow;
+    private final long[] words;
+
+    BitPixelStore(int width, int height) {
+        this(width, height, new long[height * wordsPerRow(width)]);
+    }
+
+    private BitPixelStore(int width, int height, long[] words) {
+        this.width = width;
+        this.height = height;
+        this.wordsPerRow = wordsPerRow(width);
+        this.words = words;
+    }
+
+    /** Converts char rows; anything beyond line art goes to palette storage instead. */
+    static PixelStore from(char[][] source) {
+        var width = source.length == 0 ? 0 : source[0].length;
+        var store = new BitPixelStore(width, source.length);
+        for (var y = 0; y < source.length; y++) {
+            for (var x = 0; x < width; x++) {
+                var c = source[y][x];
+                if (c == LINE_CHAR) {
+                    store.set(x, y, c);
+                } else if (c != EMPTY_CHAR) {
+                    return PalettePixelStore.from(source);
+                }
+            }
+        }
+        return store;
+    }
+
+    private static int wordsPerRow(int width) {
+        return (width + Long.SIZE - 1) / Long.SIZE;
+    }
+
+    private boolean isSet(int x, int y) {
+        return (words[y * wordsPerRow + (x >>> 6)] & (1L << x)) != 0;
+    }
+
+    @Override
+    public char get(int x, int y) {
+        return isSet(x, y) ? LINE_CHAR : EMPTY_CHAR;
+    }
+
+    /** Callers go through {@link #accepting} first, so {@code c} is EMPTY_CHAR or LINE_CHAR here. */
+    @Override
+    public void set(int x, int y, char c) {
+        var index = y * wordsPerRow + (x >>> 6);
+        if (c == LINE_CHAR) {
+            words[index] |= 1L << x;
+        } else {
+            words[index] &= ~(1L << x);
+        }
+    }
+
+    @Override
+    public void fillSpan(int y, int from, int to, char c) {
+        if (from >= to) {
+            return;
+        }
+        var base = y * wordsPerRow;
+        var first = from >>> 6;
+        var last = (to - 1) >>> 6;
+        var firstMask = -1L << from;
+        var lastMask = -1L >>> (Long.SIZE - 1 - ((to - 1) & 63));
+        for (var w = first; w <= last; w++) {
+            var mask = -1L;
+            if (w == first) {
+                mask &= firstMask;
+            }
+            if (w == last) {
+                mask &= lastMask;
+            }
+            if (c == LINE_CHAR) {
+                words[base + w] |= mask;
+            } else {
+                words[base + w] &= ~mask;
+            }
+        }
+    }
+
+    @Override
+    public void readRow(int y, int x, char[] dst, int length) {
+        for (var i = 0; i < length; i++) {
+            dst[i] = isSet(x + i, y) ? LINE_CHAR : EMPTY_CHAR;
+        }
+    }
+
+    /**
+     * Only blank and line exist here (other replacements promote first), so replacing one with the other turns
+     * the whole row into the replacement: a word scan to detect the target, then a whole-row span fill.
+     */
+    @Override
+    public boolean replace(int y, char target, char replacement) {
+        if (target == replacement || (target != EMPTY_CHAR && target != LINE_CHAR)) {
+            return false;
+        }
+        var from = y * wordsPerRow;
+        var lineBits = 0;
+        for (var w = from; w < from + wordsPerRow; w++) {
+            lineBits += Long.bitCount(words[w]);
+        }
+        if (target == LINE_CHAR ? lineBits == 0 : lineBits == width) {
+            return false;
+        }
+        fillSpan(y, 0, width, replacement);
+        return true;
+    }
+
+    @Override
+    public PixelStore accepting(char c) {
+        if (c == EMPTY_CHAR || c == LINE_CHAR) {
+            return this;
+        }
+        var palette = new PalettePixelStore(width, height);
+        for (var y = 0; y < height; y++) {
+            for (var x = 0; x < width; x++) {
+                if (isSet(x, y)) {
+                    palette.set(x, y, LINE_CHAR);
+                }
+            }
+        }
+        return palette.accepting(c);
+    }
+
+    @Override
+    public PixelStore copy() {
+        return new BitPixelStore(width, height, words.clone());
+    }
+
+    @Override
+    public boolean rowEquals(int y, PixelStore other, int width) {
+        if (other instanceof BitPixelStore bits) {
+            var from = y * wordsPerRow;
+            return Arrays.equals(words, from, from + wordsPerRow, bits.words, from, from + wordsPerRow);
+        }
+        return PixelStore.super.rowEquals(y, other, width);
+    }
+}
@@ -2,10 +2,13 @@ package drawing.canvas;
 
 import drawing.exception.DrawingException;
 
-import java.util.ArrayDeque;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.Arrays;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
 
 import static drawing.canvas.DrawingConstants.EMPTY_CHAR;
 import static drawing.canvas.DrawingConstants.LINE_CHAR;
@@ -13,24 +16,81 @@ import static drawing.canvas.DrawingConstants.LINE_CHAR;
 /**
  * Drawing surface. Uses 1-based coordinates (user-friendly).
  * Separation of concerns: stores pixels only, no borders (rendering responsibility).
+ * Concurrency: single writer (command thread) under a StampedLock write lock; other threads (renderers,
+ * exporters, metrics) read consistent frames via optimistic reads, without stopping the command stream.
+ * Every construction and mutation takes a fresh {@link #version()} from one global counter, so a version
+ * identifies canvas and state at once (render caches key on it without holding the canvas).
+ * Per-row versions record which rows a mutation touched, so cached encoded rows are refreshed only when dirty.
+ * Mapped canvases ({@link #createMapped}/{@link #openMapped}) keep their pixels in a file; nothing per pixel is
+ * held on the heap for them, so fills use a span fill instead of the canvas-sized FillScratch.
+ * An optional {@link RegionIndex} turns fills into recolors of known components (see {@link #regionSize}).
  */
 public final class Canvas {
 
+    private static final AtomicLong VERSIONS = new AtomicLong();
+    private static final int SCAN_CHUNK = 256;
+
     private final int width;
     private final int height;
-    private final char[][] pixels;
+    private final StampedLock lock;
+    private PixelStore store;
+    private final long identity;
+    private final long[] rowVersions;
+    private volatile long version;
+    private FillScratch fillScratch;
+    private RegionIndex regions;
 
     public Canvas(int width, int height) {
-        this.width = width;
-        this.height = height;
-        this.pixels = new char[height][width];
-        clear();
+        this(width, height, PixelStore.create(width, height));
+    }
+
+    Canvas(int width, int height, PixelStore store) {
+        this(width, height, store, new StampedLock());
     }
 
-    Canvas(int width, int height, char[][] pixels) {
+    /** Ownership transfer keeps the lock with the buffer, so readers of an older owner still validate. */
+    Canvas(int width, int height, PixelStore store, StampedLock lock) {
         this.width = width;
         this.height = height;
-        this.pixels = pixels;
+        this.store = store;
+        this.lock = lock;
+        this.version = VERSIONS.incrementAndGet();
+        this.identity = version;
+        this.rowVersions = new long[height];
+        Arrays.fill(rowVersions, version);
+        if (RegionIndex.enabled() && !isMapped()) {
+            this.regions = new RegionIndex(width, height);
+        }
+    }
+
+    /** Blank canvas backed by a new memory-mapped file (see MappedPixelStore). */
+    public static Canvas createMapped(Path file, int width, int height) throws IOException {
+        return new Canvas(width, height, MappedPixelStore.create(file, width, height));
+    }
+
+    /** Reopens a mapped canvas file with the size and pixels it was last left with. */
+    public static Canvas openMapped(Path file) throws IOException {
+        var store = MappedPixelStore.open(file);
+        return new Canvas(store.width(), store.height(), store);
+    }
+
+    /** True when edits go straight to a file: such canvases are never snapshotted (history, copies). */
+    public boolean isMapped() {
+        return store instanceof MappedPixelStore;
+    }
+
+    /**
+     * Makes the pixels of a mapped canvas durable in its file (see MappedPixelStore#force); no-op on the heap.
+     * Called on S, when another canvas replaces this one, and on exit.
+     */
+    public void flush() {
+        if (store instanceof MappedPixelStore mapped) {
+            try {
+                mapped.force();
+            } catch (UncheckedIOException e) {
+                throw new DrawingException("Failed to flush canvas file: " + e.getCause().getMessage());
+            }
+        }
     }
 
     public int width() {
@@ -41,13 +101,92 @@ public final class Canvas {
         return height;
     }
 
-    /** Defensive copying for Memento pattern. */
-    char[][] copyPixels() {
-        return PixelArrays.copy(pixels);
+    /** Monotonic; changes on every mutation (bumped after the pixels, under the write lock). */
+    public long version() {
+        return version;
+    }
+
+    /** Version this canvas was created with: stable for its lifetime, unique across canvases. */
+    long identity() {
+        return identity;
+    }
+
+    /** Version of the last mutation touching row {@code y} (0-based). Read inside {@link #read}. */
+    long rowVersion(int y) {
+        return rowVersions[y];
+    }
+
+    /**
+     * Defensive copying for Memento pattern. Takes the write lock: copy-on-write stores mark their rows shared
+     * while copying, which must not race with a writer (or run inside an optimistic read).
+     */
+    PixelStore copyStore() {
+        var stamp = lock.writeLock();
+        try {
+            return store.copy();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /** Ownership transfer for Memento pattern (no copy). */
+    PixelStore store() {
+        return store;
+    }
+
+    StampedLock lock() {
+        return lock;
+    }
+
+    /**
+     * Consistent read without blocking the writer: runs optimistically first and retries under the read lock
+     * if a write interleaved. The reader must only compute a result (torn attempts are discarded, including
+     * ones that threw on a half-written store, e.g. a promotion swapping rows mid-read).
+     * Not reentrant: never call from inside a write.
+     */
+    <T> T read(Supplier<T> reader) {
+        var stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                var result = reader.get();
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                if (lock.validate(stamp)) {
+                    throw e;
+                }
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
     }
 
     char getPixelRaw(int x, int y) {
-        return pixels[y][x];
+        return store.get(x, y);
+    }
+
+    /** Bulk row read for rendering. 0-based, no bounds checks. */
+    void readRow(int y, int x, char[] dst, int length) {
+        store.readRow(y, x, dst, length);
+    }
+
+    public boolean contentEquals(Canvas other) {
+        if (width != other.width || height != other.height) {
+            return false;
+        }
+        return read(() -> other.read(() -> {
+            for (var y = 0; y < height; y++) {
+                if (!store.rowEquals(y, other.store, width)) {
+                    return false;
+                }
+            }
+            return true;
+        }));
     }
 
     private boolean isOutOfBounds(Point p) {
@@ -65,11 +204,56 @@ public final class Canvas {
     }
 
     public char getPixel(Point p) {
-        return pixels[p.y() - 1][p.x() - 1];
+        var stamp = lock.tryOptimisticRead();
+        var c = store.get(p.x() - 1, p.y() - 1);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                c = store.get(p.x() - 1, p.y() - 1);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return c;
+    }
+
+    /**
+     * Size of the same-color 4-connected region containing {@code p}. Builds the region index on first use (heap
+     * canvases only); later fills then recolor indexed regions instead of searching.
+     */
+    public int regionSize(Point p) {
+        validateBounds(p);
+        var stamp = lock.writeLock();
+        try {
+            if (regions == null) {
+                if (isMapped()) {
+                    throw new DrawingException("Region queries are not available on mapped canvases");
+                }
+                regions = new RegionIndex(width, height);
+            }
+            return regions.regionSize(store, p.x() - 1, p.y() - 1);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /** Index of this canvas's regions, or null when not kept (test aid). */
+    RegionIndex regions() {
+        return regions;
     }
 
     public void setPixel(Point p, char c) {
-        pixels[p.y() - 1][p.x() - 1] = c;
+        var stamp = lock.writeLock();
+        try {
+            store = store.accepting(c);
+            store.set(p.x() - 1, p.y() - 1, c);
+            if (regions != null) {
+                regions.invalidate(p.x() - 1, p.y() - 1, p.x() - 1, p.y() - 1);
+            }
+            bump(p.y() - 1, p.y() - 1);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
     public void drawLine(Point from, Point to) {
@@ -78,46 +262,341 @@ public final class Canvas {
         var y1 = Math.min(from.y(), to.y());
         var y2 = Math.max(from.y(), to.y());
 
-        for (var y = y1; y <= y2; y++) {
-            for (var x = x1; x <= x2; x++) {
-                setPixel(new Point(x, y), LINE_CHAR);
+        var stamp = lock.writeLock();
+        try {
+            store = store.accepting(LINE_CHAR);
+            for (var y = y1; y <= y2; y++) {
+                store.fillSpan(y - 1, x1 - 1, x2, LINE_CHAR);
+            }
+            if (regions != null) {
+                regions.invalidate(x1 - 1, y1 - 1, x2 - 1, y2 - 1);
+            }
+            bump(y1 - 1, y2 - 1);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Every {@code target} pixel becomes {@code replacement}, connected or not: one linear pass over the store
+     * (see PixelStore#replace), no search. Only rows that changed get a new row version. An absent target leaves
+     * the store alone: no promotion to a wider store, no palette slot spent on the replacement.
+     */
+    public void replaceColor(char target, char replacement) {
+        if (target == replacement) {
+            return;
+        }
+        var stamp = lock.writeLock();
+        try {
+            if (!contains(target)) {
+                return;
+            }
+            store = store.accepting(replacement);
+            var next = VERSIONS.incrementAndGet();
+            var changed = false;
+            for (var y = 0; y < height; y++) {
+                if (store.replace(y, target, replacement)) {
+                    rowVersions[y] = next;
+                    changed = true;
+                }
+            }
+            if (changed) {
+                if (regions != null) {
+                    regions.invalidate(0, 0, width - 1, height - 1);
+                }
+                version = next;
             }
+        } finally {
+            lock.unlockWrite(stamp);
         }
     }
 
-    /** Algorithm: BFS (Breadth-First Search) with HashSet. O(n) time/space. Avoids stack overflow. */
+    /** Pixels of the rectangle spanned by two corners (any order), one bulk row read per row. */
+    public Clip copyRegion(Point corner1, Point corner2) {
+        validateBounds(corner1, corner2);
+        var x1 = Math.min(corner1.x(), corner2.x()) - 1;
+        var y1 = Math.min(corner1.y(), corner2.y()) - 1;
+        var w = Math.abs(corner1.x() - corner2.x()) + 1;
+        var h = Math.abs(corner1.y() - corner2.y()) + 1;
+        return read(() -> {
+            var rows = new char[h][w];
+            for (var y = 0; y < h; y++) {
+                store.readRow(y1 + y, x1, rows[y], w);
+            }
+            return new Clip(rows);
+        });
+    }
+
+    /** Blanks the rectangle spanned by two corners (any order). */
+    public void clearRegion(Point corner1, Point corner2) {
+        validateBounds(corner1, corner2);
+        var x1 = Math.min(corner1.x(), corner2.x()) - 1;
+        var x2 = Math.max(corner1.x(), corner2.x()) - 1;
+        var y1 = Math.min(corner1.y(), corner2.y()) - 1;
+        var y2 = Math.max(corner1.y(), corner2.y()) - 1;
+        var stamp = lock.writeLock();
+        try {
+            for (var y = y1; y <= y2; y++) {
+                store.fillSpan(y, x1, x2 + 1, EMPTY_CHAR);
+            }
+            if (regions != null) {
+                regions.invalidate(x1, y1, x2, y2);
+            }
+            bump(y1, y2);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Blits {@code clip} with its top-left corner at {@code at}, clipped to the canvas: one bulk row write per
+     * row (System.arraycopy on char rows). The clip's colors are accepted once, before any row is written.
+     */
+    public void paste(Clip clip, Point at) {
+        validateBounds(at);
+        var x0 = at.x() - 1;
+        var y0 = at.y() - 1;
+        var w = Math.min(clip.width(), width - x0);
+        var h = Math.min(clip.height(), height - y0);
+        var stamp = lock.writeLock();
+        try {
+            for (var c : clip.colors()) {
+                store = store.accepting(c);
+            }
+            for (var y = 0; y < h; y++) {
+                store.writeRow(y0 + y, x0, clip.row(y), w);
+            }
+            if (regions != null) {
+                regions.invalidate(x0, y0, x0 + w - 1, y0 + h - 1);
+            }
+            bump(y0, y0 + h - 1);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Moves the rectangle spanned by two corners so its top-left corner lands on {@code at} (clipped to the
+     * canvas); the vacated pixels become blank. Overlap is handled like memmove, with one row buffer: rows are
+     * copied bottom-up when moving down, so no source row is overwritten before it is read.
+     */
+    public void moveRegion(Point corner1, Point corner2, Point at) {
+        validateBounds(corner1, corner2, at);
+        var x1 = Math.min(corner1.x(), corner2.x()) - 1;
+        var x2 = Math.max(corner1.x(), corner2.x()) - 1;
+        var y1 = Math.min(corner1.y(), corner2.y()) - 1;
+        var y2 = Math.max(corner1.y(), corner2.y()) - 1;
+        var ax = at.x() - 1;
+        var ay = at.y() - 1;
+        var w = Math.min(x2 - x1 + 1, width - ax);
+        var h = Math.min(y2 - y1 + 1, height - ay);
+        var stamp = lock.writeLock();
+        try {
+            var buffer = new char[w];
+            for (var i = 0; i < h; i++) {
+                var row = ay > y1 ? h - 1 - i : i;
+                store.readRow(y1 + row, x1, buffer, w);
+                store.writeRow(ay + row, ax, buffer, w);
+            }
+            for (var y = y1; y <= y2; y++) {
+                if (y < ay || y >= ay + h) {
+                    store.fillSpan(y, x1, x2 + 1, EMPTY_CHAR);
+                    continue;
+                }
+                if (x1 < ax) {
+                    store.fillSpan(y, x1, Math.min(x2 + 1, ax), EMPTY_CHAR);
+                }
+                if (x2 >= ax + w) {
+                    store.fillSpan(y, Math.max(x1, ax + w), x2 + 1, EMPTY_CHAR);
+                }
+            }
+            if (regions != null) {
+                regions.invalidate(Math.min(x1, ax), Math.min(y1, ay),
+                        Math.max(x2, ax + w - 1), Math.max(y2, ay + h - 1));
+            }
+            bump(Math.min(y1, ay), Math.max(y2, ay + h - 1));
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /** Presence scan: stops at the first row holding {@code c}. */
+    private boolean contains(char c) {
+        var row = new char[width];
+        for (var y = 0; y < height; y++) {
+            store.readRow(y, 0, row, width);
+            if (RowOps.indexOf(row, 0, width, c) < width) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Algorithm: BFS (Breadth-First Search) over row-major pixel indices. O(n) time, avoids stack overflow.
+     * Visited stamps and queue are primitive arrays cached on the canvas (see FillScratch), no per-fill allocation.
+     */
     public void fill(Point start, char color) {
-        var target = getPixel(start);
+        var stamp = lock.writeLock();
+        try {
+            floodFill(start, color);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void floodFill(Point start, char color) {
+        var target = store.get(start.x() - 1, start.y() - 1);
         if (target == color) {
             return;
         }
+        store = store.accepting(color);
+        if (isMapped()) {
+            spanFill(start.x() - 1, start.y() - 1, target, color);
+            return;
+        }
+        if (regions != null) {
+            var rows = regions.recolor(store, start.x() - 1, start.y() - 1, color);
+            bump((int) (rows >>> 32), (int) rows);
+            return;
+        }
+
+        var scratch = fillScratch();
+        scratch.begin();
+        var queue = scratch.queue();
+        var head = 0;
+        var tail = 0;
+
+        var startIndex = (start.y() - 1) * width + start.x() - 1;
+        scratch.visit(startIndex);
+        queue[tail++] = startIndex;
+        // A 4-connected region covers a contiguous band of rows
+        var minY = start.y() - 1;
+        var maxY = minY;
+
+        while (head < tail) {
+            var index = queue[head++];
+            var x = index % width;
+            var y = index / width;
+            store.set(x, y, color);
+            minY = Math.min(minY, y);
+            maxY = Math.max(maxY, y);
+
+            if (x > 0) {
+                tail = offerIfTarget(scratch, index - 1, x - 1, y, target, tail);
+            }
+            if (x < width - 1) {
+                tail = offerIfTarget(scratch, index + 1, x + 1, y, target, tail);
+            }
+            if (y > 0) {
+                tail = offerIfTarget(scratch, index - width, x, y - 1, target, tail);
+            }
+            if (y < height - 1) {
+                tail = offerIfTarget(scratch, index + width, x, y + 1, target, tail);
+            }
+        }
+        bump(minY, maxY);
+    }
+
+    /**
+     * Scanline fill for mapped canvases: painted pixels no longer match the target, so no visited array is needed,
+     * and the seed stack grows with the region's outline rather than the canvas area (which may exceed the heap).
+     * Rows are read in bulk and scanned with RowOps (run boundaries, next target), so the vector path applies.
+     */
+    private void spanFill(int startX, int startY, char target, char color) {
+        var row = new char[width];
+        var seeds = new long[64];
+        var size = 0;
+        seeds[size++] = seed(startX, startY);
+        var minY = startY;
+        var maxY = startY;
 
-        var queue = new ArrayDeque<Point>();
-        var visited = new HashSet<Point>();
-        queue.offer(start);
-        visited.add(start);
+        while (size > 0) {
+            var seed = seeds[--size];
+            var x = (int) seed;
+            var y = (int) (seed >>> 32);
+            if (store.get(x, y) != target) {
+                continue;
+            }
+            var left = runLeft(row, x, y, target);
+            var right = runRight(row, x, y, target);
+            store.fillSpan(y, left, right, color);
+            minY = Math.min(minY, y);
+            maxY = Math.max(maxY, y);
 
-        while (!queue.isEmpty()) {
-            var p = queue.poll();
-            setPixel(p, color);
+            for (var ny = y - 1; ny <= y + 1; ny += 2) {
+                if (ny < 0 || ny >= height) {
+                    continue;
+                }
+                // One seed per run of target pixels next to the span
+                var length = right - left;
+                store.readRow(ny, left, row, length);
+                for (var i = RowOps.indexOf(row, 0, length, target); i < length;
+                        i = RowOps.indexOf(row, RowOps.runEnd(row, i, length, target), length, target)) {
+                    if (size == seeds.length) {
+                        seeds = Arrays.copyOf(seeds, size * 2);
+                    }
+                    seeds[size++] = seed(left + i, ny);
+                }
+            }
+        }
+        bump(minY, maxY);
+    }
+
+    /** Start of the run of {@code target} through (x, y), read backwards in chunks of {@link #SCAN_CHUNK}. */
+    private int runLeft(char[] buffer, int x, int y, char target) {
+        var to = x + 1;
+        while (to > 0) {
+            var from = Math.max(0, to - SCAN_CHUNK);
+            store.readRow(y, from, buffer, to - from);
+            var start = RowOps.runStart(buffer, 0, to - from, target);
+            if (start > 0) {
+                return from + start;
+            }
+            to = from;
+        }
+        return 0;
+    }
 
-            addIfNotVisited(queue, visited, p.moveX(1), target);
-            addIfNotVisited(queue, visited, p.moveX(-1), target);
-            addIfNotVisited(queue, visited, p.moveY(1), target);
-            addIfNotVisited(queue, visited, p.moveY(-1), target);
+    /** End (exclusive) of the run of {@code target} through (x, y), read forwards in chunks. */
+    private int runRight(char[] buffer, int x, int y, char target) {
+        var from = x;
+        while (from < width) {
+            var to = Math.min(width, from + SCAN_CHUNK);
+            store.readRow(y, from, buffer, to - from);
+            var end = RowOps.runEnd(buffer, 0, to - from, target);
+            if (end < to - from) {
+                return from + end;
+            }
+            from = to;
         }
+        return width;
+    }
+
+    private static long seed(int x, int y) {
+        return ((long) y << 32) | x;
+    }
+
+    /** Marks rows [fromRow, toRow] dirty, then publishes the new version. Called under the write lock. */
+    private void bump(int fromRow, int toRow) {
+        var next = VERSIONS.incrementAndGet();
+        Arrays.fill(rowVersions, fromRow, toRow + 1, next);
+        version = next;
     }
 
-    private void addIfNotVisited(ArrayDeque<Point> queue, Set<Point> visited, Point p, char target) {
-        if (!isOutOfBounds(p) && !visited.contains(p) && getPixel(p) == target) {
-            queue.offer(p);
-            visited.add(p);
+    private int offerIfTarget(FillScratch scratch, int index, int x, int y, char target, int tail) {
+        if (store.get(x, y) == target && scratch.visit(index)) {
+            scratch.queue()[tail] = index;
+            return tail + 1;
         }
+        return tail;
     }
 
-    private void clear() {
-        for (var row : pixels) {
-            Arrays.fill(row, EMPTY_CHAR);
+    /** Lazily allocated: canvases that are never filled (or only snapshotted) don't pay for it. */
+    FillScratch fillScratch() {
+        if (fillScratch == null) {
+            fillScratch = new FillScratch(width * height);
         }
+        return fillScratch;
     }
 }
@@ -1,19 +1,30 @@
 package drawing.canvas;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.StampedLock;
+
 /**
  * Pattern: Memento (GoF). Captures canvas state for undo/redo.
- * Uses defensive copying to preserve snapshot integrity.
+ * Uses defensive copying to preserve snapshot integrity, except for ownership transfer
+ * ({@link #adopt}/{@link #release}), where the buffer moves between canvas and memento without copying.
+ * History entries are compressed after capture ({@link #compressInBackground}, per-row RLE) and decoded on
+ * restore/release; state access is synchronized because compression runs on another thread.
+ * Char stores are kept as they are: their rows are interned and shared with the live canvas and the other
+ * entries, so RLE would only duplicate them (and decoding would break the sharing).
  */
 public final class CanvasMemento {
 
     private final int width;
     private final int height;
-    private final char[][] pixels;
+    private final StampedLock lock;
+    private PixelStore pixels;
+    private byte[] compressed;
 
-    private CanvasMemento(int width, int height, char[][] pixels) {
+    private CanvasMemento(int width, int height, PixelStore pixels, StampedLock lock) {
         this.width = width;
         this.height = height;
         this.pixels = pixels;
+        this.lock = lock;
     }
 
     public int width() {
@@ -25,10 +36,53 @@ public final class CanvasMemento {
     }
 
     public static CanvasMemento from(Canvas canvas) {
-        return new CanvasMemento(canvas.width(), canvas.height(), canvas.copyPixels());
+        return new CanvasMemento(canvas.width(), canvas.height(), canvas.copyStore(), new StampedLock());
+    }
+
+    /** Ownership transfer: takes the canvas buffer as-is. The caller must not use the canvas afterwards. */
+    public static CanvasMemento adopt(Canvas canvas) {
+        return new CanvasMemento(canvas.width(), canvas.height(), canvas.store(), canvas.lock());
+    }
+
+    /** Replaces the raw pixels with their RLE encoding off the caller's thread; the REPL never waits for it. */
+    public void compressInBackground() {
+        CompletableFuture.runAsync(this::compress);
+    }
+
+    synchronized void compress() {
+        if (pixels != null && !(pixels instanceof CharPixelStore)) {
+            compressed = RowRunCodec.encode(pixels, width, height);
+            pixels = null;
+        }
+    }
+
+    /** Encoded size in bytes, or -1 while still raw (always, for char stores). */
+    synchronized int compressedSize() {
+        return compressed == null ? -1 : compressed.length;
+    }
+
+    public synchronized Canvas restore() {
+        if (compressed != null) {
+            return new Canvas(width, height, PixelStore.wrap(RowRunCodec.decode(compressed, width, height)));
+        }
+        return new Canvas(width, height, requirePixels().copy());
+    }
+
+    /** Ownership transfer: hands the buffer to a new canvas without copying. Single use. */
+    public synchronized Canvas release() {
+        var store = compressed != null
+                ? PixelStore.wrap(RowRunCodec.decode(compressed, width, height))
+                : requirePixels();
+        var canvas = new Canvas(width, height, store, lock);
+        pixels = null;
+        compressed = null;
+        return canvas;
     }
 
-    public Canvas restore() {
-        return new Canvas(width, height, PixelArrays.copy(pixels));
+    private PixelStore requirePixels() {
+        if (pixels == null) {
+            throw new IllegalStateException("Memento already released");
+        }
+        return pixels;
     }
 }
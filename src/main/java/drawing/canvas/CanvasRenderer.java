@@ -1,30 +1,252 @@
 package drawing.canvas;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
 import static drawing.canvas.DrawingConstants.HORIZONTAL_BORDER;
 import static drawing.canvas.DrawingConstants.VERTICAL_BORDER;
 
 /**
  * Single Responsibility: rendering only. Canvas stores pixels, Renderer adds borders.
+ * Caches the two most recent frames keyed by canvas version and viewport: re-rendering an unchanged canvas
+ * returns the same frame. The byte-output path ({@link #renderRows}, used by the REPL echo and S) caches one
+ * encoded buffer per row instead, re-encoded only when that row is dirty.
+ * Frames of at least {@link #PARALLEL_PIXELS} are rendered in horizontal row bands on the common ForkJoin pool:
+ * each band writes its own disjoint slice of one pre-sized buffer, so the output is identical to a sequential run.
  */
 public final class CanvasRenderer {
 
+    static final int PARALLEL_PIXELS = 1 << 18;
+    private static final int BAND_PIXELS = 1 << 15;
+
+    private volatile Frame recent;
+    private volatile Frame older;
+    private EncodedFrame recentRows;
+    private EncodedFrame olderRows;
+    private int encodedRows;
+
     public String render(Canvas canvas) {
-        var sb = new StringBuilder();
-        var w = canvas.width();
-        var h = canvas.height();
-        var horizontalBorder = String.valueOf(HORIZONTAL_BORDER).repeat(w + 2) + '\n';
+        return render(canvas, Viewport.of(canvas));
+    }
+
+    /**
+     * Renders only the visible window, borders drawn around it. O(viewport), not O(canvas).
+     * Safe to call from any thread: the frame is read consistently while commands keep writing.
+     */
+    public String render(Canvas canvas, Viewport viewport) {
+        return frame(canvas, viewport).text;
+    }
+
+    /**
+     * Frame as pre-encoded row buffers (top border, rows, bottom border) for one gathering write.
+     * Only rows whose version changed since the last call are encoded again (into new buffers, so buffers
+     * already handed out never change). Returns read-only views positioned at the start, ready to consume.
+     */
+    public ByteBuffer[] renderRows(Canvas canvas, Viewport viewport) {
+        return encode(canvas, viewport).views();
+    }
+
+    public ByteBuffer[] renderRows(Canvas canvas) {
+        return renderRows(canvas, Viewport.of(canvas));
+    }
+
+    /** Cached encoded frame with the row versions it reflects (in-place saves write only changed rows). */
+    synchronized EncodedFrame encode(Canvas canvas, Viewport viewport) {
+        var view = viewport.clip(canvas);
+        EncodedFrame cached = null;
+        if (recentRows != null && recentRows.matches(canvas.identity(), view)) {
+            cached = recentRows;
+        } else if (olderRows != null && olderRows.matches(canvas.identity(), view)) {
+            cached = olderRows;
+        }
+        var previous = cached;
+        var rows = canvas.read(() -> EncodedFrame.refresh(previous, canvas, view));
+        encodedRows += rows.encoded;
+        if (cached != recentRows) {
+            olderRows = recentRows;
+        }
+        recentRows = rows;
+        return rows;
+    }
+
+    /** Rows encoded so far (cache effectiveness, for tests). */
+    synchronized int encodedRows() {
+        return encodedRows;
+    }
+
+    private Frame frame(Canvas canvas, Viewport viewport) {
+        var view = viewport.clip(canvas);
+        var version = canvas.version();
+        var hit = recent;
+        if (hit == null || !hit.matches(version, view)) {
+            hit = older;
+        }
+        if (hit != null && hit.matches(version, view)) {
+            return hit;
+        }
+        // Version read inside the consistent read, so it always describes the rendered pixels
+        var frame = canvas.read(() -> new Frame(canvas.version(), view, render(view, canvas)));
+        older = recent;
+        recent = frame;
+        return frame;
+    }
+
+    /** Every line is w + 3 chars, so line {@code i} starts at {@code (w + 3) * i} and bands never overlap. */
+    private String render(Viewport view, Canvas canvas) {
+        var w = view.width();
+        var h = view.height();
+        var lineLength = w + 3;
+        var text = new char[lineLength * (h + 2)];
+        Arrays.fill(text, 0, w + 2, HORIZONTAL_BORDER);
+        text[w + 2] = '\n';
+        System.arraycopy(text, 0, text, lineLength * (h + 1), lineLength);
+
+        bands(w, h, (long) w * h).forEach(band -> {
+            var row = new char[w];
+            var from = band * bandRows(w);
+            for (var i = from; i < Math.min(h, from + bandRows(w)); i++) {
+                canvas.readRow(view.y() - 1 + i, view.x() - 1, row, w);
+                var start = lineLength * (i + 1);
+                text[start] = VERTICAL_BORDER;
+                System.arraycopy(row, 0, text, start + 1, w);
+                text[start + w + 1] = VERTICAL_BORDER;
+                text[start + w + 2] = '\n';
+            }
+        });
+        return new String(text);
+    }
+
+    /** Band indices over h rows; parallel only when enough pixels are involved to repay the fork/join. */
+    private static IntStream bands(int w, int h, long pixels) {
+        var bands = IntStream.range(0, (h + bandRows(w) - 1) / bandRows(w));
+        return pixels >= PARALLEL_PIXELS ? bands.parallel() : bands;
+    }
+
+    private static int bandRows(int w) {
+        return Math.max(1, BAND_PIXELS / w);
+    }
 
-        sb.append(horizontalBorder);
+    private static final class Frame {
 
-        for (var y = 0; y < h; y++) {
-            sb.append(VERTICAL_BORDER);
-            for (var x = 0; x < w; x++) {
-                sb.append(canvas.getPixelRaw(x, y));
+        private final long version;
+        private final Viewport view;
+        private final String text;
+
+        Frame(long version, Viewport view, String text) {
+            this.version = version;
+            this.view = view;
+            this.text = text;
+        }
+
+        boolean matches(long version, Viewport view) {
+            return this.version == version && this.view.equals(view);
+        }
+    }
+
+    /** Encoded rows of one canvas/viewport, with the row versions they were encoded at. */
+    static final class EncodedFrame {
+
+        private final long identity;
+        private final Viewport view;
+        private final long[] versions;
+        private final ByteBuffer[] buffers;
+        private final int encoded;
+
+        private EncodedFrame(long identity, Viewport view, long[] versions, ByteBuffer[] buffers, int encoded) {
+            this.identity = identity;
+            this.view = view;
+            this.versions = versions;
+            this.buffers = buffers;
+            this.encoded = encoded;
+        }
+
+        boolean matches(long identity, Viewport view) {
+            return this.identity == identity && this.view.equals(view);
+        }
+
+        long identity() {
+            return identity;
+        }
+
+        /** Version row {@code i} of the view was encoded at. */
+        long version(int i) {
+            return versions[i];
+        }
+
+        /** Frame line {@code i}: 0 is the top border, 1..height the rows, height + 1 the bottom border. */
+        ByteBuffer line(int i) {
+            return buffers[i].asReadOnlyBuffer();
+        }
+
+        int lineCount() {
+            return buffers.length;
+        }
+
+        /** Fresh read-only views of all lines, ready to consume. */
+        ByteBuffer[] views() {
+            var views = new ByteBuffer[buffers.length];
+            for (var i = 0; i < views.length; i++) {
+                views[i] = buffers[i].asReadOnlyBuffer();
+            }
+            return views;
+        }
+
+        /** Runs inside a consistent read: computes a new frame, leaves {@code cached} untouched. */
+        static EncodedFrame refresh(EncodedFrame cached, Canvas canvas, Viewport view) {
+            var w = view.width();
+            var h = view.height();
+            var versions = new long[h];
+            var buffers = new ByteBuffer[h + 2];
+            var border = cached != null ? cached.buffers[0] : encodeBorder(w);
+            buffers[0] = border;
+            buffers[h + 1] = border;
+
+            var encoded = 0;
+            for (var i = 0; i < h; i++) {
+                versions[i] = canvas.rowVersion(view.y() - 1 + i);
+                if (cached != null && cached.versions[i] == versions[i]) {
+                    buffers[i + 1] = cached.buffers[i + 1];
+                } else {
+                    encoded++;
+                }
             }
-            sb.append(VERTICAL_BORDER).append('\n');
+            // Dirty rows (still null) are encoded band by band, in parallel when there are many
+            bands(w, h, (long) w * encoded).forEach(band -> {
+                var row = new char[w];
+                var from = band * bandRows(w);
+                for (var i = from; i < Math.min(h, from + bandRows(w)); i++) {
+                    if (buffers[i + 1] == null) {
+                        canvas.readRow(view.y() - 1 + i, view.x() - 1, row, w);
+                        buffers[i + 1] = encodeRow(row);
+                    }
+                }
+            });
+            return new EncodedFrame(canvas.identity(), view, versions, buffers, encoded);
         }
 
-        sb.append(horizontalBorder);
-        return sb.toString();
+        static ByteBuffer encodeBorder(int width) {
+            var bytes = new byte[width + 3];
+            Arrays.fill(bytes, 0, width + 2, (byte) HORIZONTAL_BORDER);
+            bytes[width + 2] = '\n';
+            return ByteBuffer.wrap(bytes);
+        }
+
+        /** ASCII rows (the common case) are copied byte per char; anything else goes through UTF-8. */
+        static ByteBuffer encodeRow(char[] row) {
+            var bytes = new byte[row.length + 3];
+            bytes[0] = (byte) VERTICAL_BORDER;
+            for (var x = 0; x < row.length; x++) {
+                if (row[x] >= 0x80) {
+                    var text = VERTICAL_BORDER + new String(row) + VERTICAL_BORDER + '\n';
+                    return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+                }
+                bytes[x + 1] = (byte) row[x];
+            }
+            bytes[row.length + 1] = (byte) VERTICAL_BORDER;
+            bytes[row.length + 2] = '\n';
+            return ByteBuffer.wrap(bytes);
+        }
     }
 }
@@ -0,0 +1,304 @@
+package drawing.canvas;
+
+import drawing.exception.DrawingException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Writes the rendered canvas to files, reusing the renderer's encoded rows.
+ * Full saves are atomic: temp file in the target directory, fsync, then rename over the target, so a crash leaves
+ * either the old or the new file. In-place mode exploits the fixed-width text format instead: row {@code y}
+ * (0-based) of a w-wide canvas starts at byte {@code (w + 3) * (y + 1)}, so a repeated save to the same path
+ * rewrites only rows changed since the last one (positional writes, one fsync; not atomic). Anything that breaks
+ * the layout falls back to a full rewrite: another canvas or size, a file changed behind our back, or non-ASCII
+ * colors (multi-byte rows).
+ * <p>
+ * {@link #submit} is the asynchronous pipeline used by S: the command thread only captures the encoded frame
+ * (immutable), a background writer does the I/O. Pending saves form a bounded queue coalesced per path (a newer
+ * save of the same file replaces one not yet started). Outcomes are collected as {@link SaveNotice}s for the
+ * command thread to report; the writer never touches the console.
+ * <p>
+ * Mapped canvases are the exception: an encoded frame would be canvas-sized on the heap. They are flushed and then
+ * streamed row by row through one row buffer on the calling thread (atomic, never in place, nothing cached).
+ */
+public final class CanvasSaver {
+
+    static final int MAX_PENDING = 16;
+
+    private static final AtomicLong TEMP_IDS = new AtomicLong();
+
+    private final CanvasRenderer renderer;
+    private final Map<Path, SavedFile> saved = new HashMap<>();
+    private final Object queueLock = new Object();
+    private final LinkedHashMap<Path, PendingSave> pending = new LinkedHashMap<>();
+    private final ConcurrentLinkedQueue<SaveNotice> notices = new ConcurrentLinkedQueue<>();
+    private boolean writerRunning;
+
+    public CanvasSaver(CanvasRenderer renderer) {
+        this.renderer = renderer;
+    }
+
+    /** Queues a save and returns at once; blocks only while {@link #MAX_PENDING} other files are waiting. */
+    public void submit(Canvas canvas, Path path, boolean inPlace) {
+        if (canvas.isMapped()) {
+            awaitIdle();
+            try {
+                writeStreamed(canvas, path.toAbsolutePath());
+                notices.add(new SaveNotice(path.toString(), null));
+            } catch (IOException | RuntimeException e) {
+                notices.add(new SaveNotice(path.toString(), String.valueOf(e.getMessage())));
+            }
+            return;
+        }
+        var save = new PendingSave(path, snapshot(canvas), inPlace);
+        synchronized (queueLock) {
+            var key = path.toAbsolutePath();
+            while (!pending.containsKey(key) && pending.size() >= MAX_PENDING) {
+                awaitQueue();
+            }
+            pending.put(key, save);
+            if (!writerRunning) {
+                writerRunning = true;
+                var writer = new Thread(this::drainQueue, "canvas-saver");
+                writer.setDaemon(true);
+                writer.start();
+            }
+        }
+    }
+
+    /** Blocks until every submitted save has been written (or has failed). */
+    public void awaitIdle() {
+        synchronized (queueLock) {
+            while (writerRunning) {
+                awaitQueue();
+            }
+        }
+    }
+
+    /** Outcomes of finished saves since the last call, oldest first. */
+    public List<SaveNotice> drainNotices() {
+        var drained = new ArrayList<SaveNotice>();
+        for (var notice = notices.poll(); notice != null; notice = notices.poll()) {
+            drained.add(notice);
+        }
+        return drained;
+    }
+
+    /** Synchronous full (atomic) save. */
+    public void save(Canvas canvas, Path path) throws IOException {
+        if (canvas.isMapped()) {
+            writeStreamed(canvas, path.toAbsolutePath());
+            return;
+        }
+        write(snapshot(canvas), path.toAbsolutePath());
+    }
+
+    /** Synchronous in-place save: rewrites only rows changed since the last save to {@code path}. */
+    public int saveInPlace(Canvas canvas, Path path) throws IOException {
+        if (canvas.isMapped()) {
+            writeStreamed(canvas, path.toAbsolutePath());
+            return canvas.height();
+        }
+        return writeInPlace(snapshot(canvas), path.toAbsolutePath());
+    }
+
+    private Snapshot snapshot(Canvas canvas) {
+        return new Snapshot(renderer.encode(canvas, Viewport.of(canvas)), canvas.width(), canvas.height());
+    }
+
+    /** Writer thread: exits once the queue is empty (a later submit starts a new one), so idle sessions cost none. */
+    private void drainQueue() {
+        while (true) {
+            PendingSave save;
+            synchronized (queueLock) {
+                var next = pending.entrySet().iterator();
+                if (!next.hasNext()) {
+                    writerRunning = false;
+                    queueLock.notifyAll();
+                    return;
+                }
+                save = next.next().getValue();
+                next.remove();
+                queueLock.notifyAll();
+            }
+            try {
+                var key = save.path().toAbsolutePath();
+                if (save.inPlace()) {
+                    writeInPlace(save.snapshot(), key);
+                } else {
+                    write(save.snapshot(), key);
+                }
+                notices.add(new SaveNotice(save.path().toString(), null));
+            } catch (IOException | RuntimeException e) {
+                notices.add(new SaveNotice(save.path().toString(), String.valueOf(e.getMessage())));
+            }
+        }
+    }
+
+    private void awaitQueue() {
+        try {
+            queueLock.wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DrawingException("Interrupted while waiting for saves");
+        }
+    }
+
+    private synchronized int writeInPlace(Snapshot snapshot, Path key) throws IOException {
+        var last = saved.get(key);
+        if (last == null || !last.matches(snapshot)
+                || !Files.isRegularFile(key) || Files.size(key) != last.size) {
+            write(snapshot, key);
+            return snapshot.height();
+        }
+
+        var frame = snapshot.frame();
+        var rowBytes = snapshot.width() + 3;
+        var written = 0;
+        try (var file = FileChannel.open(key, WRITE)) {
+            for (var y = 0; y < snapshot.height(); y++) {
+                if (frame.version(y) == last.versions[y]) {
+                    continue;
+                }
+                var line = frame.line(y + 1);
+                var position = (long) rowBytes * (y + 1);
+                while (line.hasRemaining()) {
+                    position += file.write(line, position);
+                }
+                written++;
+            }
+            file.force(false);
+        }
+        saved.put(key, SavedFile.of(snapshot, last.size));
+        return written;
+    }
+
+    private synchronized void write(Snapshot snapshot, Path key) throws IOException {
+        var lines = snapshot.frame().views();
+        var size = 0L;
+        for (var line : lines) {
+            size += line.remaining();
+        }
+        var temp = tempFile(key);
+        try {
+            try (var file = FileChannel.open(temp, CREATE, TRUNCATE_EXISTING, WRITE)) {
+                while (lines[lines.length - 1].hasRemaining()) {
+                    file.write(lines);
+                }
+                file.force(true);
+            }
+            replace(temp, key);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        if (size == (long) (snapshot.width() + 3) * (snapshot.height() + 2)) {
+            saved.put(key, SavedFile.of(snapshot, size));
+        } else {
+            saved.remove(key);
+        }
+    }
+
+    private synchronized void writeStreamed(Canvas canvas, Path key) throws IOException {
+        canvas.flush();
+        var temp = tempFile(key);
+        try {
+            try (var file = FileChannel.open(temp, CREATE, TRUNCATE_EXISTING, WRITE)) {
+                var border = CanvasRenderer.EncodedFrame.encodeBorder(canvas.width());
+                writeFully(file, border.duplicate());
+                var row = new char[canvas.width()];
+                for (var y = 0; y < canvas.height(); y++) {
+                    canvas.readRow(y, 0, row, row.length);
+                    writeFully(file, CanvasRenderer.EncodedFrame.encodeRow(row));
+                }
+                writeFully(file, border);
+                file.force(true);
+            }
+            replace(temp, key);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        saved.remove(key);
+    }
+
+    private static Path tempFile(Path key) {
+        return key.resolveSibling("." + key.getFileName() + "." + ProcessHandle.current().pid()
+                + "-" + TEMP_IDS.incrementAndGet() + ".tmp");
+    }
+
+    private static void replace(Path temp, Path key) throws IOException {
+        try {
+            Files.move(temp, key, ATOMIC_MOVE, REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, key, REPLACE_EXISTING);
+        }
+    }
+
+    private static void writeFully(FileChannel file, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            file.write(buffer);
+        }
+    }
+
+    /** Outcome of one save; {@code error} is null on success. */
+    public record SaveNotice(String filename, String error) {
+
+        public boolean failed() {
+            return error != null;
+        }
+
+        public String message() {
+            return failed() ? "Failed to save: " + error : "Canvas saved to: " + filename;
+        }
+    }
+
+    /** Immutable capture of what to write: encoded buffers are never modified once handed out. */
+    private record Snapshot(CanvasRenderer.EncodedFrame frame, int width, int height) {
+    }
+
+    private record PendingSave(Path path, Snapshot snapshot, boolean inPlace) {
+    }
+
+    /** What a path holds after our last save: enough to tell which rows are stale. */
+    private record SavedFile(long identity, int width, int height, long[] versions, long size) {
+
+        static SavedFile of(Snapshot snapshot, long size) {
+            var versions = new long[snapshot.height()];
+            for (var y = 0; y < versions.length; y++) {
+                versions[y] = snapshot.frame().version(y);
+            }
+            return new SavedFile(snapshot.frame().identity(), snapshot.width(), snapshot.height(), versions, size);
+        }
+
+        /** Same canvas and size, and every changed row still encodes to exactly width + 3 bytes. */
+        boolean matches(Snapshot snapshot) {
+            var frame = snapshot.frame();
+            if (frame.identity() != identity || snapshot.width() != width || snapshot.height() != height) {
+                return false;
+            }
+            for (var y = 0; y < height; y++) {
+                if (frame.version(y) != versions[y] && frame.line(y + 1).remaining() != width + 3) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package drawing.canvas;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+
+import static drawing.canvas.DrawingConstants.EMPTY_CHAR;
+
+/**
+ * One {@code char} per pixel: holds any color, 2 bytes per pixel.
+ * Rows are copy-on-write: a copy shares the (interned) row arrays, and whichever store writes a shared row
+ * first clones it. Snapshots cost one pointer per row plus hashing of the rows written since the last one.
+ * Interning happens only in {@link #copy} (history captures), against the lineage's own {@link RowInterner}.
+ */
+final class CharPixelStore implements PixelStore {
+
+    private final char[][] rows;
+    private final boolean[] shared;
+    private final RowInterner interner;
+
+    /** Takes ownership of {@code rows}: none of them may be referenced elsewhere. Starts a new lineage. */
+    CharPixelStore(char[][] rows) {
+        this(rows, new boolean[rows.length], new RowInterner());
+    }
+
+    private CharPixelStore(char[][] rows, boolean[] shared, RowInterner interner) {
+        this.rows = rows;
+        this.shared = shared;
+        this.interner = interner;
+    }
+
+    static CharPixelStore blank(int width, int height) {
+        var row = new char[width];
+        Arrays.fill(row, EMPTY_CHAR);
+        var interner = new RowInterner();
+        var rows = new char[height][];
+        Arrays.fill(rows, interner.intern(row));
+        var shared = new boolean[height];
+        Arrays.fill(shared, true);
+        return new CharPixelStore(rows, shared, interner);
+    }
+
+    @Override
+    public char get(int x, int y) {
+        return rows[y][x];
+    }
+
+    @Override
+    public void set(int x, int y, char c) {
+        writableRow(y)[x] = c;
+    }
+
+    @Override
+    public void fillSpan(int y, int from, int to, char c) {
+        Arrays.fill(writableRow(y), from, to, c);
+    }
+
+    @Override
+    public void readRow(int y, int x, char[] dst, int length) {
+        System.arraycopy(rows[y], x, dst, 0, length);
+    }
+
+    @Override
+    public void writeRow(int y, int x, char[] src, int length) {
+        System.arraycopy(src, 0, writableRow(y), x, length);
+    }
+
+    /** Shared rows without {@code target} are left shared (no clone); the rest is one RowOps pass. */
+    @Override
+    public boolean replace(int y, char target, char replacement) {
+        var first = RowOps.indexOf(rows[y], 0, rows[y].length, target);
+        if (first == rows[y].length) {
+            return false;
+        }
+        RowOps.replace(writableRow(y), first, rows[y].length, target, replacement);
+        return true;
+    }
+
+    @Override
+    public PixelStore accepting(char c) {
+        return this;
+    }
+
+    /** Interns rows written since the last copy, then shares every row with the copy (marks this store too). */
+    @Override
+    public PixelStore copy() {
+        shareAll();
+        return new CharPixelStore(rows.clone(), shared.clone(), interner);
+    }
+
+    @Override
+    public boolean rowEquals(int y, PixelStore other, int width) {
+        if (other instanceof CharPixelStore chars) {
+            return rows[y] == chars.rows[y] || RowOps.equals(rows[y], chars.rows[y]);
+        }
+        return PixelStore.super.rowEquals(y, other, width);
+    }
+
+    /** Number of distinct row arrays (test aid for sharing). */
+    int distinctRows() {
+        var distinct = Collections.newSetFromMap(new IdentityHashMap<char[], Boolean>());
+        distinct.addAll(Arrays.asList(rows));
+        return distinct.size();
+    }
+
+    boolean sharesRowWith(CharPixelStore other, int y) {
+        return rows[y] == other.rows[y];
+    }
+
+    private void shareAll() {
+        for (var y = 0; y < rows.length; y++) {
+            if (!shared[y]) {
+                rows[y] = interner.intern(rows[y]);
+                shared[y] = true;
+            }
+        }
+    }
+
+    private char[] writableRow(int y) {
+        if (shared[y]) {
+            rows[y] = rows[y].clone();
+            shared[y] = false;
+        }
+        return rows[y];
+    }
+}
@@ -0,0 +1,46 @@
+package drawing.canvas;
+
+import java.util.BitSet;
+
+/**
+ * Immutable rectangle of pixels cut or copied from a canvas, pasted with {@link Canvas#paste}. Rows are kept as
+ * plain char arrays so every paste is one bulk row copy per row, whatever the target store. The distinct colors
+ * are collected once, so a paste widens the target store up front instead of checking every pixel.
+ */
+public final class Clip {
+
+    private final char[][] rows;
+    private final char[] colors;
+
+    Clip(char[][] rows) {
+        this.rows = rows;
+        var seen = new BitSet(Character.MAX_VALUE + 1);
+        for (var row : rows) {
+            for (var c : row) {
+                seen.set(c);
+            }
+        }
+        this.colors = new char[seen.cardinality()];
+        var i = 0;
+        for (var c = seen.nextSetBit(0); c >= 0; c = seen.nextSetBit(c + 1)) {
+            colors[i++] = (char) c;
+        }
+    }
+
+    public int width() {
+        return rows[0].length;
+    }
+
+    public int height() {
+        return rows.length;
+    }
+
+    /** Row {@code y} (0-based); shared, never modified. */
+    char[] row(int y) {
+        return rows[y];
+    }
+
+    char[] colors() {
+        return colors;
+    }
+}
@@ -0,0 +1,47 @@
+package drawing.canvas;
+
+import java.util.Arrays;
+
+/**
+ * Reusable flood-fill bookkeeping, cached per canvas: generation-stamped visited array plus an int queue.
+ * Starting a fill bumps the generation, which "clears" visited in O(1); repeated fills allocate nothing.
+ * Pixels are addressed by row-major index (y * width + x), so both arrays are walked linearly.
+ */
+final class FillScratch {
+
+    private final int[] stamps;
+    private final int[] queue;
+    private int generation;
+
+    FillScratch(int size) {
+        this.stamps = new int[size];
+        this.queue = new int[size];
+    }
+
+    void begin() {
+        generation++;
+        if (generation == 0) {
+            Arrays.fill(stamps, 0);
+            generation = 1;
+        }
+    }
+
+    /** Marks index visited; false when it already was in this generation. */
+    boolean visit(int index) {
+        if (stamps[index] == generation) {
+            return false;
+        }
+        stamps[index] = generation;
+        return true;
+    }
+
+    /** Each pixel is visited at most once per fill, so a plain array of canvas size never overflows. */
+    int[] queue() {
+        return queue;
+    }
+
+    /** Test hook: jump next to the int overflow to exercise the wrap-around clear. */
+    void setGeneration(int generation) {
+        this.generation = generation;
+    }
+}
@@ -0,0 +1,259 @@
+package drawing.canvas;
+
+import drawing.exception.DrawingException;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import static drawing.canvas.DrawingConstants.EMPTY_CHAR;
+import static drawing.canvas.DrawingConstants.LINE_CHAR;
+
+/**
+ * Writes the canvas as an image, one pixel per canvas cell: empty is white, lines black, and every other color
+ * char a fixed hue of its own. Both formats stream row by row; nothing image-sized is ever held in memory.
+ * <p>
+ * PPM (binary P6) is written straight from one reused row buffer. PNG is compressed in strips of about
+ * {@link #STRIP_BYTES} raw bytes on the common ForkJoin pool (the pigz scheme): each strip is raw deflate primed
+ * with the previous 32 KiB as dictionary and ended with a sync flush, so the strips concatenate into one valid
+ * zlib stream; their Adler-32 checksums are combined in order. At most two strips per core are in flight.
+ */
+public final class ImageExporter {
+
+    static final int STRIP_BYTES = 1 << 17;
+
+    private static final int WINDOW_BYTES = 32 * 1024;
+    private static final int ADLER_BASE = 65521;
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    private ImageExporter() {
+    }
+
+    /** Format from the file extension: {@code .png} or {@code .ppm}. */
+    public static void export(Canvas canvas, Path path) throws IOException {
+        var name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (!name.endsWith(".png") && !name.endsWith(".ppm")) {
+            throw new DrawingException("Unsupported image format: use a .png or .ppm file name");
+        }
+        try (var out = new BufferedOutputStream(Files.newOutputStream(path), 1 << 16)) {
+            if (name.endsWith(".png")) {
+                writePng(canvas, out);
+            } else {
+                writePpm(canvas, out);
+            }
+        }
+    }
+
+    static void writePpm(Canvas canvas, OutputStream out) throws IOException {
+        var header = "P6\n%d %d\n255\n".formatted(canvas.width(), canvas.height());
+        out.write(header.getBytes(StandardCharsets.US_ASCII));
+        var chars = new char[canvas.width()];
+        var rgb = new byte[3 * canvas.width()];
+        for (var y = 0; y < canvas.height(); y++) {
+            canvas.readRow(y, 0, chars, chars.length);
+            toRgb(chars, rgb, 0);
+            out.write(rgb);
+        }
+    }
+
+    static void writePng(Canvas canvas, OutputStream out) throws IOException {
+        var data = new DataOutputStream(out);
+        data.write(PNG_SIGNATURE);
+        var header = new ByteArrayOutputStream();
+        var ihdr = new DataOutputStream(header);
+        ihdr.writeInt(canvas.width());
+        ihdr.writeInt(canvas.height());
+        ihdr.write(new byte[]{8, 2, 0, 0, 0}); // 8-bit RGB, deflate, adaptive filtering, no interlace
+        writeChunk(data, "IHDR", header.toByteArray());
+        writeChunk(data, "IDAT", new byte[]{0x78, 0x01}); // zlib header: 32 KiB window, no preset dictionary
+
+        var rowBytes = 1 + 3L * canvas.width();
+        var stripRows = (int) Math.max(1, STRIP_BYTES / rowBytes);
+        var maxInFlight = 2 * Runtime.getRuntime().availableProcessors();
+        var inFlight = new ArrayDeque<CompletableFuture<Strip>>();
+        var adler = 1L;
+        for (var from = 0; from < canvas.height(); from += stripRows) {
+            if (inFlight.size() == maxInFlight) {
+                adler = writeStrip(data, inFlight.poll(), adler);
+            }
+            var start = from;
+            var end = Math.min(canvas.height(), from + stripRows);
+            inFlight.add(CompletableFuture.supplyAsync(() -> compressStrip(canvas, start, end)));
+        }
+        while (!inFlight.isEmpty()) {
+            adler = writeStrip(data, inFlight.poll(), adler);
+        }
+        writeChunk(data, "IDAT", new byte[]{
+                (byte) (adler >>> 24), (byte) (adler >>> 16), (byte) (adler >>> 8), (byte) adler});
+        writeChunk(data, "IEND", new byte[0]);
+        data.flush();
+    }
+
+    /** Deterministic color per char: golden-ratio hue steps (HSV, s 0.65, v 0.9) keep neighbouring chars apart. */
+    static int rgb(char c) {
+        if (c == EMPTY_CHAR) {
+            return 0xFFFFFF;
+        }
+        if (c == LINE_CHAR) {
+            return 0x000000;
+        }
+        var hue = (c * 0.618033988749895) % 1.0 * 6;
+        var sector = (int) hue;
+        var rising = channel(1 - 0.65 * (1 - (hue - sector)));
+        var falling = channel(1 - 0.65 * (hue - sector));
+        var high = channel(1);
+        var low = channel(1 - 0.65);
+        return switch (sector) {
+            case 0 -> high << 16 | rising << 8 | low;
+            case 1 -> falling << 16 | high << 8 | low;
+            case 2 -> low << 16 | high << 8 | rising;
+            case 3 -> low << 16 | falling << 8 | high;
+            case 4 -> rising << 16 | low << 8 | high;
+            default -> high << 16 | low << 8 | falling;
+        };
+    }
+
+    /** HSV value 0.9: brightness {@code level} of a channel, 0..255. */
+    private static int channel(double level) {
+        return (int) Math.round(0.9 * level * 255);
+    }
+
+    /** Raw deflate of rows [from, to) as filtered PNG scanlines; the last strip finishes the stream. */
+    private static Strip compressStrip(Canvas canvas, int from, int to) {
+        var deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            if (from > 0) {
+                deflater.setDictionary(dictionary(canvas, from));
+            }
+            var out = new ByteArrayOutputStream();
+            var buffer = new byte[1 << 14];
+            var adler = new Adler32();
+            var chars = new char[canvas.width()];
+            var scanline = new byte[1 + 3 * canvas.width()];
+            for (var y = from; y < to; y++) {
+                scanline(canvas, y, chars, scanline);
+                adler.update(scanline);
+                deflater.setInput(scanline);
+                while (!deflater.needsInput()) {
+                    out.write(buffer, 0, deflater.deflate(buffer, 0, buffer.length, Deflater.NO_FLUSH));
+                }
+            }
+            if (to == canvas.height()) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    out.write(buffer, 0, deflater.deflate(buffer));
+                }
+            } else {
+                int written;
+                do {
+                    written = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                    out.write(buffer, 0, written);
+                } while (written == buffer.length);
+            }
+            return new Strip(out.toByteArray(), adler.getValue(), (long) (to - from) * scanline.length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /** Last {@link #WINDOW_BYTES} of the scanlines before row {@code from}, re-read from the canvas. */
+    private static byte[] dictionary(Canvas canvas, int from) {
+        var scanline = new byte[1 + 3 * canvas.width()];
+        var rows = Math.min(from, (WINDOW_BYTES + scanline.length - 1) / scanline.length);
+        var tail = new byte[(int) Math.min(WINDOW_BYTES, (long) rows * scanline.length)];
+        var chars = new char[canvas.width()];
+        var position = tail.length;
+        for (var y = from - 1; position > 0; y--) {
+            scanline(canvas, y, chars, scanline);
+            var length = Math.min(position, scanline.length);
+            System.arraycopy(scanline, scanline.length - length, tail, position - length, length);
+            position -= length;
+        }
+        return tail;
+    }
+
+    /** Filter type 0 (None), then RGB triples. */
+    private static void scanline(Canvas canvas, int y, char[] chars, byte[] scanline) {
+        canvas.readRow(y, 0, chars, chars.length);
+        scanline[0] = 0;
+        toRgb(chars, scanline, 1);
+    }
+
+    private static void toRgb(char[] chars, byte[] dst, int offset) {
+        var last = -1;
+        var color = 0;
+        for (var x = 0; x < chars.length; x++) {
+            if (chars[x] != last) {
+                last = chars[x];
+                color = rgb(chars[x]);
+            }
+            dst[offset + 3 * x] = (byte) (color >>> 16);
+            dst[offset + 3 * x + 1] = (byte) (color >>> 8);
+            dst[offset + 3 * x + 2] = (byte) color;
+        }
+    }
+
+    /** zlib's adler32_combine: checksum of A then B from the checksums of A and B and B's length. */
+    static long combineAdler(long first, long second, long secondLength) {
+        var remainder = secondLength % ADLER_BASE;
+        var sum1 = first & 0xFFFF;
+        var sum2 = (remainder * sum1) % ADLER_BASE;
+        sum1 += (second & 0xFFFF) + ADLER_BASE - 1;
+        sum2 += ((first >>> 16) & 0xFFFF) + ((second >>> 16) & 0xFFFF) + ADLER_BASE - remainder;
+        if (sum1 >= ADLER_BASE) {
+            sum1 -= ADLER_BASE;
+        }
+        if (sum1 >= ADLER_BASE) {
+            sum1 -= ADLER_BASE;
+        }
+        if (sum2 >= 2L * ADLER_BASE) {
+            sum2 -= 2L * ADLER_BASE;
+        }
+        if (sum2 >= ADLER_BASE) {
+            sum2 -= ADLER_BASE;
+        }
+        return sum1 | (sum2 << 16);
+    }
+
+    private static void writeChunk(DataOutputStream out, String type, byte[] data) throws IOException {
+        var typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        var crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data);
+        out.writeInt(data.length);
+        out.write(typeBytes);
+        out.write(data);
+        out.writeInt((int) crc.getValue());
+    }
+
+    /** Writes the oldest strip (strips complete out of order, but are always written in order). */
+    private static long writeStrip(DataOutputStream out, CompletableFuture<Strip> pending, long adler)
+            throws IOException {
+        Strip strip;
+        try {
+            strip = pending.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IOException(e.getCause());
+        }
+        writeChunk(out, "IDAT", strip.deflated());
+        return combineAdler(adler, strip.adler(), strip.rawLength());
+    }
+
+    private record Strip(byte[] deflated, long adler, long rawLength) {
+    }
+}
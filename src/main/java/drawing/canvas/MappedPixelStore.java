@@ -0,0 +1,182 @@
+package drawing.canvas;
+
+import drawing.exception.DrawingException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+import static drawing.canvas.DrawingConstants.EMPTY_CHAR;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * One {@code char} per pixel in a memory-mapped file instead of the heap: the OS page cache decides what is
+ * resident, so canvases far larger than the heap can be edited, and the file is the canvas (it survives restarts
+ * without a save). Layout: a {@value #HEADER_BYTES}-byte header (magic, format, width, height) followed by the
+ * pixels, row-major, big-endian UTF-16. Rows are mapped in chunks below 1 GiB (one mapping is capped at 2 GiB).
+ * Writes reach the file through the page cache; {@link #force} makes them durable (survive an OS crash).
+ */
+final class MappedPixelStore implements PixelStore {
+
+    static final int MAX_WIDTH = 100_000;
+    static final int MAX_HEIGHT = 100_000;
+
+    private static final int MAGIC = 0x4452574D; // "DRWM"
+    private static final int FORMAT = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final long CHUNK_BYTES = 1L << 30;
+
+    private final int width;
+    private final int height;
+    private final int rowsPerChunk;
+    private final MappedByteBuffer[] mappings;
+    private final CharBuffer[] chunks;
+
+    private MappedPixelStore(int width, int height, MappedByteBuffer[] mappings, int rowsPerChunk) {
+        this.width = width;
+        this.height = height;
+        this.mappings = mappings;
+        this.chunks = new CharBuffer[mappings.length];
+        for (var i = 0; i < mappings.length; i++) {
+            chunks[i] = mappings[i].asCharBuffer();
+        }
+        this.rowsPerChunk = rowsPerChunk;
+    }
+
+    /** New blank canvas file; refuses to overwrite an existing file. */
+    static MappedPixelStore create(Path file, int width, int height) throws IOException {
+        validateSize(width, height);
+        try (var channel = FileChannel.open(file, CREATE_NEW, READ, WRITE)) {
+            var header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(FORMAT).putInt(width).putInt(height);
+            channel.write(header.flip(), 0);
+            var store = map(channel, width, height);
+            for (var y = 0; y < height; y++) {
+                store.fillSpan(y, 0, width, EMPTY_CHAR);
+            }
+            return store;
+        }
+    }
+
+    /** Reopens a canvas file as last written. */
+    static MappedPixelStore open(Path file) throws IOException {
+        try (var channel = FileChannel.open(file, READ, WRITE)) {
+            var header = ByteBuffer.allocate(HEADER_BYTES);
+            channel.read(header, 0);
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC || header.getInt() != FORMAT) {
+                throw new DrawingException("Not a mapped canvas file: " + file);
+            }
+            var width = header.getInt();
+            var height = header.getInt();
+            validateSize(width, height);
+            if (channel.size() != HEADER_BYTES + 2L * width * height) {
+                throw new DrawingException("Mapped canvas file is truncated: " + file);
+            }
+            return map(channel, width, height);
+        }
+    }
+
+    /** Mappings stay valid after the channel is closed; they are released with the store. */
+    private static MappedPixelStore map(FileChannel channel, int width, int height) throws IOException {
+        var rowBytes = 2L * width;
+        var rowsPerChunk = (int) Math.max(1, CHUNK_BYTES / rowBytes);
+        var mappings = new MappedByteBuffer[(height + rowsPerChunk - 1) / rowsPerChunk];
+        for (var i = 0; i < mappings.length; i++) {
+            var rows = Math.min(rowsPerChunk, height - i * rowsPerChunk);
+            var position = HEADER_BYTES + rowBytes * i * rowsPerChunk;
+            mappings[i] = channel.map(FileChannel.MapMode.READ_WRITE, position, rowBytes * rows);
+        }
+        return new MappedPixelStore(width, height, mappings, rowsPerChunk);
+    }
+
+    private static void validateSize(int width, int height) {
+        if (width <= 0 || height <= 0 || width > MAX_WIDTH || height > MAX_HEIGHT) {
+            throw new DrawingException(
+                    "Mapped canvas size must be within %dx%d".formatted(MAX_WIDTH, MAX_HEIGHT));
+        }
+    }
+
+    /** Writes dirty pages back to the file and waits for the device (like fsync). */
+    void force() {
+        for (var mapping : mappings) {
+            mapping.force();
+        }
+    }
+
+    int width() {
+        return width;
+    }
+
+    int height() {
+        return height;
+    }
+
+    @Override
+    public char get(int x, int y) {
+        return chunks[y / rowsPerChunk].get(offset(x, y));
+    }
+
+    @Override
+    public void set(int x, int y, char c) {
+        chunks[y / rowsPerChunk].put(offset(x, y), c);
+    }
+
+    @Override
+    public void fillSpan(int y, int from, int to, char c) {
+        var chunk = chunks[y / rowsPerChunk];
+        var start = offset(from, y);
+        for (var i = 0; i < to - from; i++) {
+            chunk.put(start + i, c);
+        }
+    }
+
+    @Override
+    public void readRow(int y, int x, char[] dst, int length) {
+        chunks[y / rowsPerChunk].get(offset(x, y), dst, 0, length);
+    }
+
+    @Override
+    public void writeRow(int y, int x, char[] src, int length) {
+        chunks[y / rowsPerChunk].put(offset(x, y), src, 0, length);
+    }
+
+    /** Pixel loop straight over the mapped chunk (no heap row copy). */
+    @Override
+    public boolean replace(int y, char target, char replacement) {
+        var chunk = chunks[y / rowsPerChunk];
+        var start = offset(0, y);
+        var changed = false;
+        for (var i = start; i < start + width; i++) {
+            if (chunk.get(i) == target) {
+                chunk.put(i, replacement);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /** Any char fits. */
+    @Override
+    public PixelStore accepting(char c) {
+        return this;
+    }
+
+    /** Heap copy of the whole file: history never snapshots mapped canvases, this only keeps the contract. */
+    @Override
+    public PixelStore copy() {
+        var rows = new char[height][width];
+        for (var y = 0; y < height; y++) {
+            readRow(y, 0, rows[y], width);
+        }
+        return new CharPixelStore(rows);
+    }
+
+    private int offset(int x, int y) {
+        return (y % rowsPerChunk) * width + x;
+    }
+}
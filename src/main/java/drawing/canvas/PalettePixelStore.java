@@ -0,0 +1,149 @@
+package drawing.canvas;
+
+import java.util.Arrays;
+
+import static drawing.canvas.DrawingConstants.EMPTY_CHAR;
+
+/**
+ * One {@code byte} per pixel indexing a per-canvas palette of up to 256 colors: half the memory of chars.
+ * Index 0 is EMPTY_CHAR, so freshly allocated rows are already blank. Palette entries are only appended
+ * (never reused), which keeps indices stable for copies; a 257th color promotes the canvas to char storage.
+ */
+final class PalettePixelStore implements PixelStore {
+
+    static final int MAX_COLORS = 256;
+
+    private final byte[][] rows;
+    private final char[] palette;
+    private int colors;
+
+    PalettePixelStore(int width, int height) {
+        this(new byte[height][width], new char[MAX_COLORS], 1);
+        palette[0] = EMPTY_CHAR;
+    }
+
+    private PalettePixelStore(byte[][] rows, char[] palette, int colors) {
+        this.rows = rows;
+        this.palette = palette;
+        this.colors = colors;
+    }
+
+    /** Converts char rows; stays char-backed if they use more colors than a palette holds. */
+    static PixelStore from(char[][] source) {
+        var width = source.length == 0 ? 0 : source[0].length;
+        var store = new PalettePixelStore(width, source.length);
+        for (var y = 0; y < source.length; y++) {
+            for (var x = 0; x < width; x++) {
+                var index = store.indexOf(source[y][x]);
+                if (index < 0) {
+                    return new CharPixelStore(source);
+                }
+                store.rows[y][x] = (byte) index;
+            }
+        }
+        return store;
+    }
+
+    @Override
+    public char get(int x, int y) {
+        return palette[rows[y][x] & 0xFF];
+    }
+
+    /** Callers go through {@link #accepting} first, so the color always has an index here. */
+    @Override
+    public void set(int x, int y, char c) {
+        rows[y][x] = (byte) indexOf(c);
+    }
+
+    @Override
+    public void fillSpan(int y, int from, int to, char c) {
+        Arrays.fill(rows[y], from, to, (byte) indexOf(c));
+    }
+
+    @Override
+    public void readRow(int y, int x, char[] dst, int length) {
+        var row = rows[y];
+        for (var i = 0; i < length; i++) {
+            dst[i] = palette[row[x + i] & 0xFF];
+        }
+    }
+
+    /** Index remap, one byte compare per pixel; a color missing from the palette is absent from every row. */
+    @Override
+    public boolean replace(int y, char target, char replacement) {
+        var from = indexIfPresent(target);
+        if (from < 0) {
+            return false;
+        }
+        var to = (byte) indexOf(replacement);
+        var row = rows[y];
+        var changed = false;
+        for (var x = 0; x < row.length; x++) {
+            var matches = row[x] == (byte) from;
+            changed |= matches;
+            row[x] = matches ? to : row[x];
+        }
+        return changed;
+    }
+
+    @Override
+    public PixelStore accepting(char c) {
+        if (indexOf(c) >= 0) {
+            return this;
+        }
+        var chars = new char[rows.length][];
+        for (var y = 0; y < rows.length; y++) {
+            chars[y] = new char[rows[y].length];
+            readRow(y, 0, chars[y], chars[y].length);
+        }
+        return new CharPixelStore(chars);
+    }
+
+    @Override
+    public PixelStore copy() {
+        var copy = new byte[rows.length][];
+        for (var y = 0; y < rows.length; y++) {
+            copy[y] = rows[y].clone();
+        }
+        return new PalettePixelStore(copy, palette.clone(), colors);
+    }
+
+    @Override
+    public boolean rowEquals(int y, PixelStore other, int width) {
+        // Entries are unique and append-only: with a common prefix, equal indices <=> equal colors
+        if (other instanceof PalettePixelStore indexed) {
+            var shared = Math.min(colors, indexed.colors);
+            if (Arrays.equals(palette, 0, shared, indexed.palette, 0, shared)) {
+                return Arrays.equals(rows[y], indexed.rows[y]);
+            }
+        }
+        return PixelStore.super.rowEquals(y, other, width);
+    }
+
+    int colorCount() {
+        return colors;
+    }
+
+    private int indexIfPresent(char c) {
+        for (var i = 0; i < colors; i++) {
+            if (palette[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** Index of {@code c}, appending it if there is room; -1 when the palette is full. */
+    private int indexOf(char c) {
+        for (var i = 0; i < colors; i++) {
+            if (palette[i] == c) {
+                return i;
+            }
+        }
+        if (colors == MAX_COLORS) {
+            return -1;
+        }
+        palette[colors] = c;
+        return colors++;
+    }
+}
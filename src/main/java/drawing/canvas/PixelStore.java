@@ -0,0 +1,70 @@
+package drawing.canvas;
+
+/**
+ * Pattern: Strategy. Pixel storage behind a Canvas; coordinates are 0-based, spans half-open {@code [from, to)}.
+ * Selected per JVM with {@code -Ddrawing.storage=char|palette|bit} (default char). Stores that cannot hold a color
+ * hand back a wider replacement from {@link #accepting} (bit → palette → char), so callers never see a color limit.
+ * {@link MappedPixelStore} is chosen per canvas instead (file-backed canvases, see {@link Canvas#openMapped}).
+ */
+sealed interface PixelStore permits CharPixelStore, PalettePixelStore, BitPixelStore, MappedPixelStore {
+
+    String STORAGE_PROPERTY = "drawing.storage";
+
+    /** Blank (all EMPTY_CHAR) store in the configured mode. */
+    static PixelStore create(int width, int height) {
+        return switch (storage()) {
+            case "palette" -> new PalettePixelStore(width, height);
+            case "bit" -> new BitPixelStore(width, height);
+            default -> CharPixelStore.blank(width, height);
+        };
+    }
+
+    /** Takes ownership of {@code rows}, converted to the configured mode. */
+    static PixelStore wrap(char[][] rows) {
+        return switch (storage()) {
+            case "palette" -> PalettePixelStore.from(rows);
+            case "bit" -> BitPixelStore.from(rows);
+            default -> new CharPixelStore(rows);
+        };
+    }
+
+    private static String storage() {
+        return System.getProperty(STORAGE_PROPERTY, "char");
+    }
+
+    char get(int x, int y);
+
+    void set(int x, int y, char c);
+
+    void fillSpan(int y, int from, int to, char c);
+
+    void readRow(int y, int x, char[] dst, int length);
+
+    /** Inverse of readRow; every char of {@code src} must be {@link #accepting accepted}. One fill per run here. */
+    default void writeRow(int y, int x, char[] src, int length) {
+        for (var i = 0; i < length; ) {
+            var end = RowOps.runEnd(src, i, length, src[i]);
+            fillSpan(y, x + i, x + end, src[i]);
+            i = end;
+        }
+    }
+
+    /**
+     * Replaces every {@code target} in row {@code y} with {@code replacement} (already {@link #accepting accepted}).
+     * Returns whether the row changed.
+     */
+    boolean replace(int y, char target, char replacement);
+
+    /** This store if it can hold {@code c}, otherwise a copy in a store that can (callers switch to it). */
+    PixelStore accepting(char c);
+
+    PixelStore copy();
+
+    default boolean rowEquals(int y, PixelStore other, int width) {
+        var a = new char[width];
+        var b = new char[width];
+        readRow(y, 0, a, width);
+        other.readRow(y, 0, b, width);
+        return RowOps.equals(a, b);
+    }
+}
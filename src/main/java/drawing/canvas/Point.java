@@ -1,7 +1,7 @@
 package drawing.canvas;
 
 /**
- * Value Object (DDD). Record provides immutability, equals/hashCode (used in BFS HashSet).
+ * Value Object (DDD). Record provides immutability, equals/hashCode.
  */
 public record Point(int x, int y) {
 
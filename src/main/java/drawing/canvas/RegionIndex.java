@@ -0,0 +1,353 @@
+package drawing.canvas;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Connected-component label map over same-color areas, for canvases that take many fills while their lines rarely
+ * change. Pixels are labelled per {@link #TILE}-square tile (tile-local flood, labels fit a short); a union-find
+ * over all tile-local labels joins components across tile borders. Labels and union-find are rebuilt lazily:
+ * line/pixel writes only mark their tiles dirty, and the next query relabels just those tiles, then re-joins
+ * borders (O(pixels / TILE)).
+ * <p>
+ * A fill is a recolor of a known component: its members are walked in a ring (no search, no visited set), and the
+ * component is merged in place with neighbours that already have the new color, so fills never dirty anything.
+ * Region lookup and size are a find away. Enabled with {@code -Ddrawing.regions=true}, or on the first
+ * {@link Canvas#regionSize} query; not kept for mapped canvases.
+ */
+final class RegionIndex {
+
+    static final String PROPERTY = "drawing.regions";
+    static final int TILE = 64;
+
+    private final int width;
+    private final int height;
+    private final int tilesX;
+    private final short[][] labels;
+    private final int[] localCounts;
+    private final char[][] localColors;
+    private final int[][] localSizes;
+    private final int[][] localEdges;
+    private final BitSet dirty;
+    private final int[] tileQueue = new int[TILE * TILE];
+    private long[] edges = new long[64];
+    private int edgeCount;
+    private boolean joined;
+
+    // Union-find over all tile-local labels; node ids are valid until the next rebuild
+    private int[] base;
+    private int[] nodeTile;
+    private int[] parent;
+    private int[] sizes;
+    private char[] colors;
+    private int[] ring;
+    private int[] adjacencyStart;
+    private int[] adjacency;
+
+    RegionIndex(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.tilesX = (width + TILE - 1) / TILE;
+        var tiles = tilesX * ((height + TILE - 1) / TILE);
+        this.labels = new short[tiles][];
+        this.localCounts = new int[tiles];
+        this.localColors = new char[tiles][];
+        this.localSizes = new int[tiles][];
+        this.localEdges = new int[tiles][];
+        this.dirty = new BitSet(tiles);
+        dirty.set(0, tiles);
+    }
+
+    static boolean enabled() {
+        return Boolean.getBoolean(PROPERTY);
+    }
+
+    /** Pixels in [x1, x2] x [y1, y2] (0-based, inclusive) changed shape: their tiles are relabelled lazily. */
+    void invalidate(int x1, int y1, int x2, int y2) {
+        for (var ty = y1 / TILE; ty <= y2 / TILE; ty++) {
+            dirty.set(ty * tilesX + x1 / TILE, ty * tilesX + x2 / TILE + 1);
+        }
+        joined = false;
+    }
+
+    /** Number of pixels in the same-color region as (x, y). */
+    int regionSize(PixelStore store, int x, int y) {
+        ensureBuilt(store);
+        return sizes[find(node(x, y))];
+    }
+
+    /** True when both pixels are in one region. */
+    boolean sameRegion(PixelStore store, int x1, int y1, int x2, int y2) {
+        ensureBuilt(store);
+        return find(node(x1, y1)) == find(node(x2, y2));
+    }
+
+    /**
+     * Bucket fill as a recolor of the region at (x, y), which must not already have {@code color}.
+     * Returns the rows touched, packed as {@code minY << 32 | maxY}.
+     */
+    long recolor(PixelStore store, int x, int y, char color) {
+        ensureBuilt(store);
+        var root = find(node(x, y));
+        var members = new int[16];
+        var count = 0;
+        var member = root;
+        do {
+            if (count == members.length) {
+                members = Arrays.copyOf(members, count * 2);
+            }
+            members[count++] = member;
+            member = ring[member];
+        } while (member != root);
+
+        var minY = height;
+        var maxY = -1;
+        for (var i = 0; i < count; i++) {
+            var tile = nodeTile[members[i]];
+            var band = paint(store, tile, members[i] - base[tile], color);
+            minY = Math.min(minY, (int) (band >>> 32));
+            maxY = Math.max(maxY, (int) band);
+        }
+        colors[root] = color;
+        for (var i = 0; i < count; i++) {
+            for (var e = adjacencyStart[members[i]]; e < adjacencyStart[members[i] + 1]; e++) {
+                var neighbour = find(adjacency[e]);
+                if (colors[neighbour] == color) {
+                    union(members[i], neighbour);
+                }
+            }
+        }
+        return (long) minY << 32 | maxY;
+    }
+
+    /** Recolors one tile-local component; its label stays valid, so the tile is not dirtied. */
+    private long paint(PixelStore store, int tile, int local, char color) {
+        localColors[tile][local] = color;
+        var left = (tile % tilesX) * TILE;
+        var top = (tile / tilesX) * TILE;
+        var w = Math.min(TILE, width - left);
+        var tileLabels = labels[tile];
+        var minY = -1;
+        var maxY = -1;
+        for (var i = 0; i < tileLabels.length; i++) {
+            if (tileLabels[i] == local) {
+                store.set(left + i % w, top + i / w, color);
+                if (minY < 0) {
+                    minY = top + i / w;
+                }
+                maxY = top + i / w;
+            }
+        }
+        return (long) minY << 32 | maxY;
+    }
+
+    private int node(int x, int y) {
+        var tile = (y / TILE) * tilesX + x / TILE;
+        var w = Math.min(TILE, width - (x / TILE) * TILE);
+        return base[tile] + labels[tile][(y % TILE) * w + x % TILE];
+    }
+
+    private void ensureBuilt(PixelStore store) {
+        if (joined) {
+            return;
+        }
+        for (var tile = dirty.nextSetBit(0); tile >= 0; tile = dirty.nextSetBit(tile + 1)) {
+            labelTile(store, tile);
+        }
+        dirty.clear();
+        join();
+        joined = true;
+    }
+
+    /** Tile-local BFS: same-color 4-neighbours share a label; label pairs of differing neighbours become edges. */
+    private void labelTile(PixelStore store, int tile) {
+        var left = (tile % tilesX) * TILE;
+        var top = (tile / tilesX) * TILE;
+        var w = Math.min(TILE, width - left);
+        var h = Math.min(TILE, height - top);
+        var tileLabels = new short[w * h];
+        Arrays.fill(tileLabels, (short) -1);
+        var pixels = new char[w * h];
+        var row = new char[w];
+        for (var y = 0; y < h; y++) {
+            store.readRow(top + y, left, row, w);
+            System.arraycopy(row, 0, pixels, y * w, w);
+        }
+        var colorsOut = new char[16];
+        var sizesOut = new int[16];
+        var count = 0;
+        for (var start = 0; start < pixels.length; start++) {
+            if (tileLabels[start] >= 0) {
+                continue;
+            }
+            if (count == colorsOut.length) {
+                colorsOut = Arrays.copyOf(colorsOut, count * 2);
+                sizesOut = Arrays.copyOf(sizesOut, count * 2);
+            }
+            var color = pixels[start];
+            tileLabels[start] = (short) count;
+            var head = 0;
+            var tail = 0;
+            tileQueue[tail++] = start;
+            while (head < tail) {
+                var i = tileQueue[head++];
+                var x = i % w;
+                tail = offer(pixels, tileLabels, color, count, x > 0 ? i - 1 : -1, tail);
+                tail = offer(pixels, tileLabels, color, count, x < w - 1 ? i + 1 : -1, tail);
+                tail = offer(pixels, tileLabels, color, count, i >= w ? i - w : -1, tail);
+                tail = offer(pixels, tileLabels, color, count, i + w < pixels.length ? i + w : -1, tail);
+            }
+            colorsOut[count] = color;
+            sizesOut[count++] = tail;
+        }
+
+        edgeCount = 0;
+        for (var i = 0; i < pixels.length; i++) {
+            if (i % w < w - 1 && tileLabels[i] != tileLabels[i + 1]) {
+                addEdge(Math.min(tileLabels[i], tileLabels[i + 1]), Math.max(tileLabels[i], tileLabels[i + 1]));
+            }
+            if (i + w < pixels.length && tileLabels[i] != tileLabels[i + w]) {
+                addEdge(Math.min(tileLabels[i], tileLabels[i + w]), Math.max(tileLabels[i], tileLabels[i + w]));
+            }
+        }
+        labels[tile] = tileLabels;
+        localCounts[tile] = count;
+        localColors[tile] = colorsOut;
+        localSizes[tile] = sizesOut;
+        localEdges[tile] = distinctLocalEdges();
+    }
+
+    private int offer(char[] pixels, short[] tileLabels, char color, int label, int i, int tail) {
+        if (i >= 0 && tileLabels[i] < 0 && pixels[i] == color) {
+            tileLabels[i] = (short) label;
+            tileQueue[tail++] = i;
+        }
+        return tail;
+    }
+
+    /** Fresh union-find from the tile labels: joins equal-colored neighbours inside tiles and across borders. */
+    private void join() {
+        var tiles = labels.length;
+        base = new int[tiles + 1];
+        for (var t = 0; t < tiles; t++) {
+            base[t + 1] = base[t] + localCounts[t];
+        }
+        var nodes = base[tiles];
+        nodeTile = new int[nodes];
+        parent = new int[nodes];
+        sizes = new int[nodes];
+        colors = new char[nodes];
+        ring = new int[nodes];
+        for (var t = 0; t < tiles; t++) {
+            for (var l = 0; l < localCounts[t]; l++) {
+                var n = base[t] + l;
+                nodeTile[n] = t;
+                parent[n] = n;
+                ring[n] = n;
+                sizes[n] = localSizes[t][l];
+                colors[n] = localColors[t][l];
+            }
+        }
+
+        edgeCount = 0;
+        for (var t = 0; t < tiles; t++) {
+            for (var packed : localEdges[t]) {
+                addEdge(base[t] + (packed >>> 16), base[t] + (packed & 0xFFFF));
+            }
+        }
+        // Border pixel pairs; runs along a border repeat the same pair, addEdge drops consecutive repeats
+        for (var x = TILE; x < width; x += TILE) {
+            for (var y = 0; y < height; y++) {
+                addEdge(node(x - 1, y), node(x, y));
+            }
+        }
+        for (var y = TILE; y < height; y += TILE) {
+            for (var x = 0; x < width; x++) {
+                addEdge(node(x, y - 1), node(x, y));
+            }
+        }
+        var edges = this.edges;
+        var count = edgeCount;
+
+        var degree = new int[nodes + 1];
+        for (var i = 0; i < count; i++) {
+            var a = (int) (edges[i] >>> 32);
+            var b = (int) edges[i];
+            if (colors[a] == colors[b]) {
+                union(a, b);
+            } else {
+                degree[a]++;
+                degree[b]++;
+            }
+        }
+        adjacencyStart = new int[nodes + 1];
+        for (var n = 0; n < nodes; n++) {
+            adjacencyStart[n + 1] = adjacencyStart[n] + degree[n];
+        }
+        adjacency = new int[adjacencyStart[nodes]];
+        var fill = Arrays.copyOf(adjacencyStart, nodes);
+        for (var i = 0; i < count; i++) {
+            var a = (int) (edges[i] >>> 32);
+            var b = (int) edges[i];
+            if (colors[a] != colors[b]) {
+                adjacency[fill[a]++] = b;
+                adjacency[fill[b]++] = a;
+            }
+        }
+    }
+
+    private int find(int n) {
+        while (parent[n] != n) {
+            parent[n] = parent[parent[n]];
+            n = parent[n];
+        }
+        return n;
+    }
+
+    /** Union by size; rings are spliced so each root can walk all its members. */
+    private void union(int a, int b) {
+        var rootA = find(a);
+        var rootB = find(b);
+        if (rootA == rootB) {
+            return;
+        }
+        if (sizes[rootA] < sizes[rootB]) {
+            var swap = rootA;
+            rootA = rootB;
+            rootB = swap;
+        }
+        parent[rootB] = rootA;
+        sizes[rootA] += sizes[rootB];
+        var next = ring[rootA];
+        ring[rootA] = ring[rootB];
+        ring[rootB] = next;
+    }
+
+    /** Appends the pair (a, b) to the edge buffer unless it repeats the previous one. */
+    private void addEdge(int a, int b) {
+        var edge = (long) a << 32 | b;
+        if (edgeCount > 0 && edges[edgeCount - 1] == edge) {
+            return;
+        }
+        if (edgeCount == edges.length) {
+            edges = Arrays.copyOf(edges, edgeCount * 2);
+        }
+        edges[edgeCount++] = edge;
+    }
+
+    /** Edge buffer (tile-local label pairs) sorted, deduplicated and packed as {@code a << 16 | b}. */
+    private int[] distinctLocalEdges() {
+        var packed = new int[edgeCount];
+        for (var i = 0; i < edgeCount; i++) {
+            packed[i] = (int) (edges[i] >>> 32) << 16 | (int) edges[i];
+        }
+        Arrays.sort(packed);
+        var unique = 0;
+        for (var i = 0; i < packed.length; i++) {
+            if (unique == 0 || packed[i] != packed[unique - 1]) {
+                packed[unique++] = packed[i];
+            }
+        }
+        return Arrays.copyOf(packed, unique);
+    }
+}
@@ -0,0 +1,48 @@
+package drawing.canvas;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Content-addressed cache of immutable pixel rows (Flyweight), one per canvas lineage: a store and every copy
+ * taken from it (history snapshots, restored canvases) share an interner, so their memory scales with distinct
+ * rows, not history depth times height. Unrelated canvases (daemon or batch sessions, shared-mode snapshots)
+ * never contend on it. Bounded LRU: evicted rows stay valid for their holders, they just stop being deduplicated.
+ * Interned arrays must never be written; holders mark them shared and clone before writing (copy-on-write, see
+ * CharPixelStore). Synchronized per instance: the lock is only ever taken by one lineage's copies.
+ */
+final class RowInterner {
+
+    static final int MAX_ROWS = 4096;
+
+    private final Map<RowKey, char[]> rows = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<RowKey, char[]> eldest) {
+            return size() > MAX_ROWS;
+        }
+    };
+
+    /** Canonical array equal to {@code row}: an earlier one, or {@code row} itself (which then must not change). */
+    synchronized char[] intern(char[] row) {
+        var canonical = rows.putIfAbsent(new RowKey(row), row);
+        return canonical == null ? row : canonical;
+    }
+
+    private record RowKey(char[] row, int hash) {
+
+        RowKey(char[] row) {
+            this(row, Arrays.hashCode(row));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof RowKey other && hash == other.hash && Arrays.equals(row, other.row);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package drawing.canvas;
+
+/**
+ * Utility class. Row-wise char scans used by hot canvas loops.
+ * Optional SIMD path via the incubating Vector API (see VectorRowOps), enabled with
+ * {@code -Ddrawing.vector=true --add-modules jdk.incubator.vector}; falls back to scalar otherwise.
+ * Ranges are half-open: {@code [from, to)}.
+ */
+final class RowOps {
+
+    static final String VECTOR_FLAG = "drawing.vector";
+    static final boolean VECTORIZED = Boolean.getBoolean(VECTOR_FLAG)
+            && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private RowOps() {
+    }
+
+    /** End of the run of {@code c} starting at {@code from}: first index whose char differs, or {@code to}. */
+    static int runEnd(char[] row, int from, int to, char c) {
+        return VECTORIZED ? VectorRowOps.runEnd(row, from, to, c) : scalarRunEnd(row, from, to, c);
+    }
+
+    /** Start of the run of {@code c} ending at {@code to - 1}: lowest index of the run, or {@code to} if none. */
+    static int runStart(char[] row, int from, int to, char c) {
+        return VECTORIZED ? VectorRowOps.runStart(row, from, to, c) : scalarRunStart(row, from, to, c);
+    }
+
+    /** First index of {@code c} in {@code [from, to)}, or {@code to} if absent. */
+    static int indexOf(char[] row, int from, int to, char c) {
+        return VECTORIZED ? VectorRowOps.indexOf(row, from, to, c) : scalarIndexOf(row, from, to, c);
+    }
+
+    static void replace(char[] row, int from, int to, char target, char replacement) {
+        if (VECTORIZED) {
+            VectorRowOps.replace(row, from, to, target, replacement);
+        } else {
+            scalarReplace(row, from, to, target, replacement);
+        }
+    }
+
+    static boolean equals(char[] a, char[] b) {
+        return VECTORIZED ? VectorRowOps.equals(a, b) : scalarEquals(a, b);
+    }
+
+    static int scalarRunEnd(char[] row, int from, int to, char c) {
+        for (var i = from; i < to; i++) {
+            if (row[i] != c) {
+                return i;
+            }
+        }
+        return to;
+    }
+
+    static int scalarRunStart(char[] row, int from, int to, char c) {
+        for (var i = to - 1; i >= from; i--) {
+            if (row[i] != c) {
+                return i + 1;
+            }
+        }
+        return from;
+    }
+
+    static int scalarIndexOf(char[] row, int from, int to, char c) {
+        for (var i = from; i < to; i++) {
+            if (row[i] == c) {
+                return i;
+            }
+        }
+        return to;
+    }
+
+    static void scalarReplace(char[] row, int from, int to, char target, char replacement) {
+        for (var i = from; i < to; i++) {
+            if (row[i] == target) {
+                row[i] = replacement;
+            }
+        }
+    }
+
+    static boolean scalarEquals(char[] a, char[] b) {
+        if (a.length != b.length) {
+            return false;
+        }
+        for (var i = 0; i < a.length; i++) {
+            if (a[i] != b[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,83 @@
+package drawing.canvas;
+
+import java.util.Arrays;
+
+/**
+ * Utility class. Per-row run-length encoding of pixels into one {@code byte[]} (compressed mementos).
+ * Each row is a sequence of (run length, char) pairs, both as unsigned varints; runs never cross rows,
+ * so rows decode independently. Run boundaries come from RowOps.runEnd (vectorized when enabled).
+ */
+final class RowRunCodec {
+
+    private RowRunCodec() {
+    }
+
+    static byte[] encode(PixelStore store, int width, int height) {
+        var out = new Output(Math.max(16, height * 4));
+        var row = new char[width];
+        for (var y = 0; y < height; y++) {
+            store.readRow(y, 0, row, width);
+            var x = 0;
+            while (x < width) {
+                var c = row[x];
+                var end = RowOps.runEnd(row, x, width, c);
+                out.writeVarint(end - x);
+                out.writeVarint(c);
+                x = end;
+            }
+        }
+        return out.toByteArray();
+    }
+
+    static char[][] decode(byte[] data, int width, int height) {
+        var rows = new char[height][width];
+        var position = new int[1];
+        for (var y = 0; y < height; y++) {
+            var x = 0;
+            while (x < width) {
+                var length = readVarint(data, position);
+                var c = (char) readVarint(data, position);
+                Arrays.fill(rows[y], x, x + length, c);
+                x += length;
+            }
+        }
+        return rows;
+    }
+
+    private static int readVarint(byte[] data, int[] position) {
+        var value = 0;
+        var shift = 0;
+        int b;
+        do {
+            b = data[position[0]++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private static final class Output {
+
+        private byte[] bytes;
+        private int size;
+
+        Output(int capacity) {
+            this.bytes = new byte[capacity];
+        }
+
+        void writeVarint(int value) {
+            if (bytes.length - size < 5) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            while ((value & ~0x7F) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package drawing.canvas;
+
+import drawing.exception.DrawingException;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static drawing.canvas.DrawingConstants.EMPTY_CHAR;
+import static drawing.canvas.DrawingConstants.LINE_CHAR;
+
+/**
+ * Canvas written by several clients at once (shared daemon mode). Pattern: Lock Striping.
+ * Rows are grouped into stripes of {@link #STRIPE_ROWS}, one lock each: edits in different stripes run in parallel.
+ * Deadlock freedom: lines/rectangles lock their row range in ascending order; fill discovers stripes as it expands,
+ * blocks only on stripes above everything it holds and merely tries lower ones, restarting (with those pre-locked
+ * in order) when one is busy. Every write returns a {@link Delta} so clients can undo only their own pixels.
+ */
+public final class SharedCanvas {
+
+    static final int STRIPE_ROWS = 16;
+
+    private final int width;
+    private final int height;
+    private final char[][] pixels;
+    private final ReentrantLock[] stripes;
+
+    public SharedCanvas(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.pixels = new char[height][width];
+        for (var row : pixels) {
+            Arrays.fill(row, EMPTY_CHAR);
+        }
+        this.stripes = new ReentrantLock[(height + STRIPE_ROWS - 1) / STRIPE_ROWS];
+        for (var i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    public char getPixel(Point p) {
+        var stripe = stripes[stripeOf(p.y() - 1)];
+        stripe.lock();
+        try {
+            return pixels[p.y() - 1][p.x() - 1];
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /** Consistent copy of the whole canvas (briefly holds every stripe). */
+    public Canvas snapshot() {
+        lockRows(0, height - 1);
+        try {
+            return new Canvas(width, height, PixelStore.wrap(PixelArrays.copy(pixels)));
+        } finally {
+            unlockRows(0, height - 1);
+        }
+    }
+
+    Delta drawLine(Point from, Point to) {
+        validateBounds(from, to);
+        if (from.x() != to.x() && from.y() != to.y()) {
+            throw new DrawingException("Only horizontal/vertical lines supported");
+        }
+        var delta = new Delta(LINE_CHAR);
+        var y1 = Math.min(from.y(), to.y()) - 1;
+        var y2 = Math.max(from.y(), to.y()) - 1;
+        lockRows(y1, y2);
+        try {
+            paintRect(Math.min(from.x(), to.x()) - 1, y1, Math.max(from.x(), to.x()) - 1, y2, delta);
+        } finally {
+            unlockRows(y1, y2);
+        }
+        return delta;
+    }
+
+    Delta drawRectangle(Point corner1, Point corner2) {
+        validateBounds(corner1, corner2);
+        var x1 = Math.min(corner1.x(), corner2.x()) - 1;
+        var x2 = Math.max(corner1.x(), corner2.x()) - 1;
+        var y1 = Math.min(corner1.y(), corner2.y()) - 1;
+        var y2 = Math.max(corner1.y(), corner2.y()) - 1;
+        var delta = new Delta(LINE_CHAR);
+        lockRows(y1, y2);
+        try {
+            paintRect(x1, y1, x2, y1, delta);
+            paintRect(x1, y2, x2, y2, delta);
+            paintRect(x1, y1, x1, y2, delta);
+            paintRect(x2, y1, x2, y2, delta);
+        } finally {
+            unlockRows(y1, y2);
+        }
+        return delta;
+    }
+
+    /** Two phases: explore the region while collecting its stripes' locks, then paint with all of them held. */
+    Delta fill(Point start, char color, FillScratch scratch) {
+        validateBounds(start);
+        if (color == LINE_CHAR) {
+            throw new DrawingException("Cannot use '" + LINE_CHAR + "' as fill color (reserved for lines)");
+        }
+        var required = new BitSet(stripes.length);
+        required.set(stripeOf(start.y() - 1));
+        while (true) {
+            var held = new BitSet(stripes.length);
+            for (var s = required.nextSetBit(0); s >= 0; s = required.nextSetBit(s + 1)) {
+                stripes[s].lock();
+                held.set(s);
+            }
+            try {
+                var size = explore(start, color, scratch, held, required);
+                if (size >= 0) {
+                    var delta = new Delta(color);
+                    var queue = scratch.queue();
+                    for (var i = 0; i < size; i++) {
+                        paint(queue[i] % width, queue[i] / width, delta);
+                    }
+                    return delta;
+                }
+            } finally {
+                for (var s = held.nextSetBit(0); s >= 0; s = held.nextSetBit(s + 1)) {
+                    stripes[s].unlock();
+                }
+            }
+        }
+    }
+
+    /** BFS over the target region. Returns its size (indices in scratch.queue()), or -1 to retry. */
+    private int explore(Point start, char color, FillScratch scratch, BitSet held, BitSet required) {
+        var target = pixels[start.y() - 1][start.x() - 1];
+        if (target == color) {
+            return 0;
+        }
+        scratch.begin();
+        var queue = scratch.queue();
+        var head = 0;
+        var tail = 0;
+        var startIndex = (start.y() - 1) * width + start.x() - 1;
+        scratch.visit(startIndex);
+        queue[tail++] = startIndex;
+
+        while (head < tail) {
+            var index = queue[head++];
+            var x = index % width;
+            var y = index / width;
+            if (x > 0 && pixels[y][x - 1] == target && scratch.visit(index - 1)) {
+                queue[tail++] = index - 1;
+            }
+            if (x < width - 1 && pixels[y][x + 1] == target && scratch.visit(index + 1)) {
+                queue[tail++] = index + 1;
+            }
+            for (var ny = y - 1; ny <= y + 1; ny += 2) {
+                if (ny < 0 || ny >= height) {
+                    continue;
+                }
+                if (!acquire(stripeOf(ny), held, required)) {
+                    return -1;
+                }
+                var next = ny * width + x;
+                if (pixels[ny][x] == target && scratch.visit(next)) {
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return tail;
+    }
+
+    /** Blocks only above the highest held stripe (keeps ascending order); lower stripes are merely tried. */
+    private boolean acquire(int stripe, BitSet held, BitSet required) {
+        if (held.get(stripe)) {
+            return true;
+        }
+        required.set(stripe);
+        if (stripe > held.length() - 1) {
+            stripes[stripe].lock();
+        } else if (!stripes[stripe].tryLock()) {
+            return false;
+        }
+        held.set(stripe);
+        return true;
+    }
+
+    /** Reverts delta's pixels that still hold its color; pixels repainted since by others are left alone. */
+    void revert(Delta delta) {
+        if (delta.size == 0) {
+            return;
+        }
+        lockRows(delta.minRow, delta.maxRow);
+        try {
+            for (var i = delta.size - 1; i >= 0; i--) {
+                var index = delta.indices[i];
+                var row = pixels[index / width];
+                if (row[index % width] == delta.color) {
+                    row[index % width] = delta.before[i];
+                }
+            }
+        } finally {
+            unlockRows(delta.minRow, delta.maxRow);
+        }
+    }
+
+    /** Re-applies a reverted delta where pixels are still as the revert left them. */
+    void reapply(Delta delta) {
+        if (delta.size == 0) {
+            return;
+        }
+        lockRows(delta.minRow, delta.maxRow);
+        try {
+            for (var i = 0; i < delta.size; i++) {
+                var index = delta.indices[i];
+                var row = pixels[index / width];
+                if (row[index % width] == delta.before[i]) {
+                    row[index % width] = delta.color;
+                }
+            }
+        } finally {
+            unlockRows(delta.minRow, delta.maxRow);
+        }
+    }
+
+    FillScratch newFillScratch() {
+        return new FillScratch(width * height);
+    }
+
+    private void paintRect(int x1, int y1, int x2, int y2, Delta delta) {
+        for (var y = y1; y <= y2; y++) {
+            for (var x = x1; x <= x2; x++) {
+                paint(x, y, delta);
+            }
+        }
+    }
+
+    private void paint(int x, int y, Delta delta) {
+        var old = pixels[y][x];
+        if (old != delta.color) {
+            pixels[y][x] = delta.color;
+            delta.record(y * width + x, y, old);
+        }
+    }
+
+    private void validateBounds(Point... points) {
+        for (var p : points) {
+            if (p.x() < 1 || p.x() > width || p.y() < 1 || p.y() > height) {
+                throw new DrawingException(
+                        "Point (%d,%d) out of bounds (canvas: %dx%d)".formatted(p.x(), p.y(), width, height));
+            }
+        }
+    }
+
+    private static int stripeOf(int row) {
+        return row / STRIPE_ROWS;
+    }
+
+    void lockRows(int fromRow, int toRow) {
+        for (var s = stripeOf(fromRow); s <= stripeOf(toRow); s++) {
+            stripes[s].lock();
+        }
+    }
+
+    void unlockRows(int fromRow, int toRow) {
+        for (var s = stripeOf(toRow); s >= stripeOf(fromRow); s--) {
+            stripes[s].unlock();
+        }
+    }
+
+    /** Pixels one edit changed: row-major index and previous value; all were set to {@code color}. */
+    static final class Delta {
+
+        private final char color;
+        private int[] indices = new int[16];
+        private char[] before = new char[16];
+        private int size;
+        private int minRow = Integer.MAX_VALUE;
+        private int maxRow = -1;
+
+        Delta(char color) {
+            this.color = color;
+        }
+
+        int size() {
+            return size;
+        }
+
+        private void record(int index, int row, char old) {
+            if (size == indices.length) {
+                indices = Arrays.copyOf(indices, size * 2);
+                before = Arrays.copyOf(before, size * 2);
+            }
+            indices[size] = index;
+            before[size++] = old;
+            minRow = Math.min(minRow, row);
+            maxRow = Math.max(maxRow, row);
+        }
+    }
+}
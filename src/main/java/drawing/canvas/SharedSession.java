@@ -0,0 +1,70 @@
+package drawing.canvas;
+
+import drawing.exception.DrawingException;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * One client's view of a {@link SharedCanvas}. Undo/redo are scoped to this client's own deltas:
+ * undo reverts only pixels that still show this client's edit, so other clients' later work survives.
+ * Confined to the client's thread (the canvas itself is the shared, thread-safe part).
+ */
+public final class SharedSession {
+
+    private static final int MAX_HISTORY_SIZE = 50;
+
+    private final SharedCanvas canvas;
+    private final Deque<SharedCanvas.Delta> undoStack = new ArrayDeque<>();
+    private final Deque<SharedCanvas.Delta> redoStack = new ArrayDeque<>();
+    private FillScratch fillScratch;
+
+    public SharedSession(SharedCanvas canvas) {
+        this.canvas = canvas;
+    }
+
+    public SharedCanvas canvas() {
+        return canvas;
+    }
+
+    public void drawLine(Point from, Point to) {
+        push(canvas.drawLine(from, to));
+    }
+
+    public void drawRectangle(Point corner1, Point corner2) {
+        push(canvas.drawRectangle(corner1, corner2));
+    }
+
+    public void fill(Point start, char color) {
+        if (fillScratch == null) {
+            fillScratch = canvas.newFillScratch();
+        }
+        push(canvas.fill(start, color, fillScratch));
+    }
+
+    public void undo() {
+        if (undoStack.isEmpty()) {
+            throw new DrawingException("Nothing to undo");
+        }
+        var delta = undoStack.pop();
+        canvas.revert(delta);
+        redoStack.push(delta);
+    }
+
+    public void redo() {
+        if (redoStack.isEmpty()) {
+            throw new DrawingException("Nothing to redo");
+        }
+        var delta = redoStack.pop();
+        canvas.reapply(delta);
+        undoStack.push(delta);
+    }
+
+    private void push(SharedCanvas.Delta delta) {
+        undoStack.push(delta);
+        if (undoStack.size() > MAX_HISTORY_SIZE) {
+            undoStack.removeLast();
+        }
+        redoStack.clear();
+    }
+}
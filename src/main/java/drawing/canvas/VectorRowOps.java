@@ -0,0 +1,83 @@
+package drawing.canvas;
+
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD implementation of RowOps (chars viewed as 16-bit lanes). Loaded only when RowOps.VECTORIZED,
+ * so the incubator module is not needed at runtime otherwise. Scalar loops handle the tails.
+ */
+final class VectorRowOps {
+
+    private static final VectorSpecies<Short> SPECIES = ShortVector.SPECIES_PREFERRED;
+
+    private VectorRowOps() {
+    }
+
+    static int runEnd(char[] row, int from, int to, char c) {
+        var i = from;
+        for (var bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            var differs = ShortVector.fromCharArray(SPECIES, row, i).compare(VectorOperators.NE, (short) c);
+            if (differs.anyTrue()) {
+                return i + differs.firstTrue();
+            }
+        }
+        return RowOps.scalarRunEnd(row, i, to, c);
+    }
+
+    static int runStart(char[] row, int from, int to, char c) {
+        var i = to;
+        for (var bound = to - SPECIES.loopBound(to - from); i > bound; i -= SPECIES.length()) {
+            var start = i - SPECIES.length();
+            var differs = ShortVector.fromCharArray(SPECIES, row, start).compare(VectorOperators.NE, (short) c);
+            if (differs.anyTrue()) {
+                return start + differs.lastTrue() + 1;
+            }
+        }
+        return RowOps.scalarRunStart(row, from, i, c);
+    }
+
+    static int indexOf(char[] row, int from, int to, char c) {
+        var i = from;
+        for (var bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            var matches = ShortVector.fromCharArray(SPECIES, row, i).compare(VectorOperators.EQ, (short) c);
+            if (matches.anyTrue()) {
+                return i + matches.firstTrue();
+            }
+        }
+        return RowOps.scalarIndexOf(row, i, to, c);
+    }
+
+    static void replace(char[] row, int from, int to, char target, char replacement) {
+        var i = from;
+        for (var bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            var chunk = ShortVector.fromCharArray(SPECIES, row, i);
+            var matches = chunk.compare(VectorOperators.EQ, (short) target);
+            if (matches.anyTrue()) {
+                chunk.blend((short) replacement, matches).intoCharArray(row, i);
+            }
+        }
+        RowOps.scalarReplace(row, i, to, target, replacement);
+    }
+
+    static boolean equals(char[] a, char[] b) {
+        if (a.length != b.length) {
+            return false;
+        }
+        var i = 0;
+        for (var bound = SPECIES.loopBound(a.length); i < bound; i += SPECIES.length()) {
+            var differs = ShortVector.fromCharArray(SPECIES, a, i)
+                    .compare(VectorOperators.NE, ShortVector.fromCharArray(SPECIES, b, i));
+            if (differs.anyTrue()) {
+                return false;
+            }
+        }
+        for (; i < a.length; i++) {
+            if (a[i] != b[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,21 @@
+package drawing.canvas;
+
+/**
+ * Value Object. Visible window of a canvas: 1-based top-left corner plus size.
+ * Clipped against the canvas at render time, so it survives canvas resizes (undo, new canvas).
+ */
+public record Viewport(int x, int y, int width, int height) {
+
+    public static Viewport of(Canvas canvas) {
+        return new Viewport(1, 1, canvas.width(), canvas.height());
+    }
+
+    /** Keeps at least one pixel visible: an origin past the edge is pulled back onto the canvas. */
+    public Viewport clip(Canvas canvas) {
+        var left = Math.min(x, canvas.width());
+        var top = Math.min(y, canvas.height());
+        var visibleWidth = Math.min(width, canvas.width() - left + 1);
+        var visibleHeight = Math.min(height, canvas.height() - top + 1);
+        return new Viewport(left, top, visibleWidth, visibleHeight);
+    }
+}
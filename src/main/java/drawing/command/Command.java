@@ -6,7 +6,8 @@ import drawing.context.DrawingContext;
  * Pattern: Command Pattern (GoF). Sealed interface for exhaustive switch.
  */
 public sealed interface Command permits CreateCanvasCommand, DrawLineCommand, DrawRectangleCommand, BucketFillCommand,
-        QuitCommand, UndoCommand, RedoCommand, HelpCommand, SaveCommand {
+        QuitCommand, UndoCommand, RedoCommand, HelpCommand, SaveCommand, ViewportCommand, MapCanvasCommand,
+        ExportCommand, ReplaceColorCommand, CopyRegionCommand, CutRegionCommand, PasteCommand, MoveRegionCommand {
 
     void execute(DrawingContext context);
 
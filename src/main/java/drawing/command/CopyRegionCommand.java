@@ -0,0 +1,18 @@
+package drawing.command;
+
+import drawing.canvas.Point;
+import drawing.context.DrawingContext;
+
+/** Stores the rectangle between two corners as a named clip (see Canvas.copyRegion). modifiesCanvas=false. */
+public record CopyRegionCommand(Point corner1, Point corner2, String name) implements Command {
+
+    @Override
+    public void execute(DrawingContext ctx) {
+        ctx.putClip(name, ctx.requireCanvas().copyRegion(corner1, corner2));
+    }
+
+    @Override
+    public boolean modifiesCanvas() {
+        return false;
+    }
+}
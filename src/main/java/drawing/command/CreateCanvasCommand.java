@@ -7,7 +7,7 @@ import drawing.exception.DrawingException;
 import static drawing.canvas.DrawingConstants.MAX_CANVAS_HEIGHT;
 import static drawing.canvas.DrawingConstants.MAX_CANVAS_WIDTH;
 
-/** Creates new canvas, replacing existing. Validates max dimensions. */
+/** Creates new canvas, replacing existing (viewport resets to full). Validates max dimensions. */
 public record CreateCanvasCommand(int width, int height) implements Command {
 
     @Override
@@ -17,5 +17,6 @@ public record CreateCanvasCommand(int width, int height) implements Command {
                     "Canvas size exceeds maximum allowed (%dx%d)".formatted(MAX_CANVAS_WIDTH, MAX_CANVAS_HEIGHT));
         }
         ctx.setCanvas(new Canvas(width, height));
+        ctx.setViewport(null);
     }
 }
@@ -0,0 +1,15 @@
+package drawing.command;
+
+import drawing.canvas.Point;
+import drawing.context.DrawingContext;
+
+/** Copy, then blank the rectangle. One undo step restores the pixels (the clip is kept). */
+public record CutRegionCommand(Point corner1, Point corner2, String name) implements Command {
+
+    @Override
+    public void execute(DrawingContext ctx) {
+        var canvas = ctx.requireCanvas();
+        ctx.putClip(name, canvas.copyRegion(corner1, corner2));
+        canvas.clearRegion(corner1, corner2);
+    }
+}
@@ -0,0 +1,27 @@
+package drawing.command;
+
+import drawing.canvas.ImageExporter;
+import drawing.context.DrawingContext;
+import drawing.exception.DrawingException;
+
+import java.io.IOException;
+
+/** Writes the canvas as a PNG or PPM image, chosen by extension (see ImageExporter). modifiesCanvas=false. */
+public record ExportCommand(String filename) implements Command {
+
+    @Override
+    public void execute(DrawingContext context) {
+        var canvas = context.requireCanvas();
+        try {
+            ImageExporter.export(canvas, context.resolve(filename));
+        } catch (IOException e) {
+            throw new DrawingException("Failed to export: " + e.getMessage());
+        }
+        context.getConsole().println("Canvas exported to: " + filename);
+    }
+
+    @Override
+    public boolean modifiesCanvas() {
+        return false;
+    }
+}
@@ -7,15 +7,24 @@ public record HelpCommand() implements Command {
 
     private static final String HELP_TEXT = """
             Commands:
-              C w h           Create canvas (width x height)
-              L x1 y1 x2 y2   Draw line (horizontal or vertical)
-              R x1 y1 x2 y2   Draw rectangle
-              B x y c         Bucket fill at (x,y) with color c
-              U               Undo last action
-              Z               Redo last undone action
-              S <file>        Save canvas to file
-              H               Show this help
-              Q               Quit
+              C w h               Create canvas (width x height)
+              C w h <file>        Create canvas in a memory-mapped file (kept on disk, not undoable)
+              C <file>            Reopen a memory-mapped canvas file
+              L x1 y1 x2 y2       Draw line (horizontal or vertical)
+              R x1 y1 x2 y2       Draw rectangle
+              B x y c             Bucket fill at (x,y) with color c
+              A c1 c2             Replace every pixel of color c1 with c2
+              Y x1 y1 x2 y2 [n]   Copy region to clip n (default name: clip)
+              K x1 y1 x2 y2 [n]   Cut region to clip n (leaves it blank)
+              P x y [n]           Paste clip n with its top-left corner at (x,y)
+              M x1 y1 x2 y2 x y   Move region so its top-left corner is at (x,y)
+              U                   Undo last action
+              Z                   Redo last undone action
+              S <file>            Save canvas to file (S <file> inplace rewrites only changed rows)
+              E <file>            Export canvas as an image (.png or .ppm)
+              V x y w h           Show only a w x h window at (x,y); V alone shows all
+              H                   Show this help
+              Q                   Quit
             """;
 
     @Override
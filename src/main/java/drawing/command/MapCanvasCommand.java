@@ -0,0 +1,37 @@
+package drawing.command;
+
+import drawing.canvas.Canvas;
+import drawing.context.DrawingContext;
+import drawing.exception.DrawingException;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.NoSuchFileException;
+
+/**
+ * Switches to a canvas kept in a memory-mapped file: creates a blank one ({@code C w h <file>}) or reopens an
+ * existing one ({@code C <file>}, width/height 0). Edits land in the file directly, so it persists without S.
+ * Not undoable: history is cleared, and stays empty while the mapped canvas is current (see CommandHistory).
+ */
+public record MapCanvasCommand(String filename, int width, int height) implements Command {
+
+    public MapCanvasCommand(String filename) {
+        this(filename, 0, 0);
+    }
+
+    @Override
+    public void execute(DrawingContext ctx) {
+        var file = ctx.resolve(filename);
+        try {
+            ctx.setCanvas(width == 0 ? Canvas.openMapped(file) : Canvas.createMapped(file, width, height));
+        } catch (FileAlreadyExistsException e) {
+            throw new DrawingException("File already exists: " + filename + " (open it with C <file>)");
+        } catch (NoSuchFileException e) {
+            throw new DrawingException("File not found: " + filename);
+        } catch (IOException e) {
+            throw new DrawingException("Cannot map canvas file " + filename + ": " + e.getMessage());
+        }
+        ctx.setViewport(null);
+        ctx.getHistory().clear();
+    }
+}
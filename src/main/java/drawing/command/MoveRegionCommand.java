@@ -0,0 +1,13 @@
+package drawing.command;
+
+import drawing.canvas.Point;
+import drawing.context.DrawingContext;
+
+/** Delegates to Canvas.moveRegion() (overlap-safe row blits, vacated pixels blanked). Leaves the clips alone. */
+public record MoveRegionCommand(Point corner1, Point corner2, Point to) implements Command {
+
+    @Override
+    public void execute(DrawingContext ctx) {
+        ctx.requireCanvas().moveRegion(corner1, corner2, to);
+    }
+}
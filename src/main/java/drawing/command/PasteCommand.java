@@ -0,0 +1,14 @@
+package drawing.command;
+
+import drawing.canvas.Point;
+import drawing.context.DrawingContext;
+
+/** Stamps a named clip with its top-left corner at a point; whatever falls outside the canvas is dropped. */
+public record PasteCommand(Point at, String name) implements Command {
+
+    @Override
+    public void execute(DrawingContext ctx) {
+        var canvas = ctx.requireCanvas();
+        canvas.paste(ctx.requireClip(name), at);
+    }
+}
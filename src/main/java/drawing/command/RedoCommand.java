@@ -2,13 +2,13 @@ package drawing.command;
 
 import drawing.context.DrawingContext;
 
-/** Restores undone state via Memento. modifiesCanvas=false (history manages state). */
+/** Restores undone state via Memento (buffer adopted, not copied). modifiesCanvas=false (history manages state). */
 public record RedoCommand() implements Command {
 
     @Override
     public void execute(DrawingContext ctx) {
         var nextState = ctx.getHistory().redo(ctx.getCanvas());
-        var restoredCanvas = nextState == null ? null : nextState.restore();
+        var restoredCanvas = nextState == null ? null : nextState.release();
         ctx.setCanvas(restoredCanvas);
     }
 
@@ -0,0 +1,18 @@
+package drawing.command;
+
+import drawing.context.DrawingContext;
+import drawing.exception.DrawingException;
+
+import static drawing.canvas.DrawingConstants.LINE_CHAR;
+
+/** Delegates to Canvas.replaceColor() (one linear pass, no search). One undo snapshot for the whole canvas. */
+public record ReplaceColorCommand(char target, char replacement) implements Command {
+
+    @Override
+    public void execute(DrawingContext ctx) {
+        if (replacement == LINE_CHAR) {
+            throw new DrawingException("Cannot use '" + LINE_CHAR + "' as fill color (reserved for lines)");
+        }
+        ctx.requireCanvas().replaceColor(target, replacement);
+    }
+}
@@ -1,26 +1,23 @@
 package drawing.command;
 
 import drawing.context.DrawingContext;
-import drawing.exception.DrawingException;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
+/**
+ * Queues an asynchronous, atomic export of the canvas (see CanvasSaver); returns at once, and the REPL reports
+ * "Canvas saved to" when the background write completes. modifiesCanvas=false (read-only operation).
+ * inPlace: repeated saves to the same path rewrite only the rows changed since the last one.
+ * Mapped canvases are flushed and streamed synchronously instead (no heap-sized frame; see CanvasSaver).
+ */
+public record SaveCommand(String filename, boolean inPlace) implements Command {
 
-/** Exports canvas to file. modifiesCanvas=false (read-only operation). */
-public record SaveCommand(String filename) implements Command {
+    public SaveCommand(String filename) {
+        this(filename, false);
+    }
 
     @Override
     public void execute(DrawingContext context) {
         var canvas = context.requireCanvas();
-        var content = context.getRenderer().render(canvas);
-
-        try {
-            Files.writeString(Path.of(filename), content);
-            context.getConsole().println("Canvas saved to: " + filename);
-        } catch (IOException e) {
-            throw new DrawingException("Failed to save: " + e.getMessage());
-        }
+        context.getSaver().submit(canvas, context.resolve(filename), inPlace);
     }
 
     @Override
@@ -0,0 +1,23 @@
+package drawing.command;
+
+import drawing.canvas.Point;
+import drawing.canvas.Viewport;
+import drawing.context.DrawingContext;
+
+/** Sets the rendered window; null resets to the default (full) window. modifiesCanvas=false (view state only). */
+public record ViewportCommand(Viewport viewport) implements Command {
+
+    @Override
+    public void execute(DrawingContext ctx) {
+        var canvas = ctx.requireCanvas();
+        if (viewport != null) {
+            canvas.validateBounds(new Point(viewport.x(), viewport.y()));
+        }
+        ctx.setViewport(viewport);
+    }
+
+    @Override
+    public boolean modifiesCanvas() {
+        return false;
+    }
+}
@@ -2,38 +2,90 @@ package drawing.context;
 
 import drawing.canvas.Canvas;
 import drawing.canvas.CanvasRenderer;
+import drawing.canvas.CanvasSaver;
+import drawing.canvas.Clip;
+import drawing.canvas.Viewport;
 import drawing.exception.DrawingException;
 import drawing.history.CommandHistory;
 import drawing.io.Console;
 import drawing.io.SystemConsole;
 
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static drawing.canvas.DrawingConstants.MAX_CANVAS_HEIGHT;
+import static drawing.canvas.DrawingConstants.MAX_CANVAS_WIDTH;
+
 /**
  * Pattern: Context Object. Aggregates session state for commands.
  * Dependency Injection via constructor for testability.
+ * Canvas/viewport are volatile: other threads (renderers, exporters) always see the latest swap.
+ * Clips are a named stamp library for the session: they outlive canvas swaps and are not part of undo.
+ * File names are resolved against the session's working directory (the client's, for daemon sessions).
  */
 public final class DrawingContext {
 
-    private Canvas canvas;
+    public static final String DEFAULT_CLIP = "clip";
+
+    private volatile Canvas canvas;
+    private volatile Viewport viewport;
     private final CommandHistory history = new CommandHistory();
     private final CanvasRenderer renderer = new CanvasRenderer();
+    private final CanvasSaver saver = new CanvasSaver(renderer);
+    private final Map<String, Clip> clips = new HashMap<>();
     private final Console console;
+    private final Path workingDirectory;
 
     public DrawingContext() {
         this(new SystemConsole());
     }
 
     public DrawingContext(Console console) {
+        this(console, null);
+    }
+
+    /** {@code workingDirectory} null: relative names resolve against this process's working directory. */
+    public DrawingContext(Console console, Path workingDirectory) {
         this.console = console;
+        this.workingDirectory = workingDirectory;
+    }
+
+    public Path resolve(String filename) {
+        var path = Path.of(filename);
+        return workingDirectory == null ? path : workingDirectory.resolve(path);
     }
 
     public Canvas getCanvas() {
         return canvas;
     }
 
+    /** A replaced mapped canvas is flushed first, so its file is complete once C returns. */
     public void setCanvas(Canvas canvas) {
+        var previous = this.canvas;
+        if (previous != null && previous != canvas) {
+            previous.flush();
+        }
         this.canvas = canvas;
     }
 
+    /**
+     * Visible window of the current canvas; full canvas unless a viewport was set. Mapped canvases can exceed the
+     * size limit, so the default window is capped at MAX_CANVAS_WIDTH x MAX_CANVAS_HEIGHT from the top-left corner.
+     */
+    public Viewport getViewport() {
+        if (viewport != null) {
+            return viewport;
+        }
+        var current = requireCanvas();
+        return new Viewport(1, 1, Math.min(current.width(), MAX_CANVAS_WIDTH),
+                Math.min(current.height(), MAX_CANVAS_HEIGHT));
+    }
+
+    public void setViewport(Viewport viewport) {
+        this.viewport = viewport;
+    }
+
     public CommandHistory getHistory() {
         return history;
     }
@@ -42,13 +94,29 @@ public final class DrawingContext {
         return renderer;
     }
 
+    public CanvasSaver getSaver() {
+        return saver;
+    }
+
     public Console getConsole() {
         return console;
     }
 
+    public void putClip(String name, Clip clip) {
+        clips.put(name, clip);
+    }
+
+    public Clip requireClip(String name) {
+        var clip = clips.get(name);
+        if (clip == null) {
+            throw new DrawingException("No clip named '" + name + "'. Use: Y <x1> <y1> <x2> <y2> [<name>]");
+        }
+        return clip;
+    }
+
     public Canvas requireCanvas() {
         if (canvas == null) {
-            throw new DrawingException("Canvas not created. Use: C <width> <height>");
+            throw new DrawingException("Canvas not created. Use: C <width> <height> or C <file>");
         }
         return canvas;
     }
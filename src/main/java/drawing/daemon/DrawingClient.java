@@ -0,0 +1,44 @@
+package drawing.daemon;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * Thin client for DrawingDaemon: sends a script, half-closes, copies the rendered output.
+ * The first line is a handshake carrying the client's working directory, so S/E/F file names resolve where the
+ * user ran the client rather than where the daemon was started.
+ * Any Unix-socket tool works too, e.g. {@code nc -U <socket> < script.txt} (names then resolve against the daemon's).
+ */
+public final class DrawingClient {
+
+    /** Handshake line prefix: {@code @cwd <absolute path>}. */
+    static final String WORKING_DIRECTORY = "@cwd ";
+
+    private DrawingClient() {
+    }
+
+    public static void send(Path socketPath, InputStream script, OutputStream out) throws IOException {
+        send(socketPath, Path.of("").toAbsolutePath(), script, out);
+    }
+
+    public static void send(Path socketPath, Path workingDirectory, InputStream script, OutputStream out)
+            throws IOException {
+        try (var channel = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            channel.connect(UnixDomainSocketAddress.of(socketPath));
+            var request = Channels.newOutputStream(channel);
+            var handshake = WORKING_DIRECTORY + workingDirectory.toAbsolutePath() + "\n";
+            request.write(handshake.getBytes(StandardCharsets.UTF_8));
+            script.transferTo(request);
+            channel.shutdownOutput();
+            Channels.newInputStream(channel).transferTo(out);
+            out.flush();
+        }
+    }
+}
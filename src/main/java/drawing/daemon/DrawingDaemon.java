@@ -0,0 +1,143 @@
+package drawing.daemon;
+
+import drawing.DrawingApp;
+import drawing.canvas.SharedCanvas;
+import drawing.canvas.SharedSession;
+import drawing.io.SystemConsole;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.BindException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Scanner;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Resident server on a Unix domain socket. One warm JVM (JIT-compiled fill/render paths) serves many scripts.
+ * Protocol: client streams script lines and half-closes; daemon streams back the rendered output and closes.
+ * An optional first line {@code @cwd <path>} (see DrawingClient) sets the directory that file names resolve against.
+ * Each connection runs on its own virtual thread with a fresh DrawingContext (no state shared between scripts),
+ * or, when bound with {@link #bindShared}, draws on one {@link SharedCanvas} together with the other connections.
+ */
+public final class DrawingDaemon implements Closeable {
+
+    private static final int HANDSHAKE_LIMIT = 4096;
+
+    private final Path socketPath;
+    private final ServerSocketChannel server;
+    private final SharedCanvas shared;
+    private final ExecutorService sessions = Executors.newVirtualThreadPerTaskExecutor();
+
+    private DrawingDaemon(Path socketPath, ServerSocketChannel server, SharedCanvas shared) {
+        this.socketPath = socketPath;
+        this.server = server;
+        this.shared = shared;
+    }
+
+    /**
+     * Replaces a stale socket file left by a previous daemon; fails with "Address in use" if another daemon still
+     * answers on it or the path is not a socket at all (never deletes a regular file).
+     */
+    public static DrawingDaemon bind(Path socketPath) throws IOException {
+        return new DrawingDaemon(socketPath, open(socketPath), null);
+    }
+
+    /** All connections draw on {@code canvas}; each keeps its own undo/redo. */
+    public static DrawingDaemon bindShared(Path socketPath, SharedCanvas canvas) throws IOException {
+        return new DrawingDaemon(socketPath, open(socketPath), canvas);
+    }
+
+    private static ServerSocketChannel open(Path socketPath) throws IOException {
+        removeStaleSocket(socketPath);
+        var server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        server.bind(UnixDomainSocketAddress.of(socketPath));
+        return server;
+    }
+
+    private static void removeStaleSocket(Path socketPath) throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(socketPath, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (NoSuchFileException e) {
+            return;
+        }
+        if (!attributes.isOther()) {
+            throw new BindException("Address in use: " + socketPath + " (not a socket)");
+        }
+        try (var probe = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            probe.connect(UnixDomainSocketAddress.of(socketPath));
+        } catch (IOException refused) {
+            Files.delete(socketPath);
+            return;
+        }
+        throw new BindException("Address in use: " + socketPath);
+    }
+
+    /** Accepts connections until closed. */
+    public void serve() throws IOException {
+        while (true) {
+            SocketChannel connection;
+            try {
+                connection = server.accept();
+            } catch (AsynchronousCloseException e) {
+                return;
+            }
+            sessions.submit(() -> handle(connection));
+        }
+    }
+
+    private void handle(SocketChannel connection) {
+        try (connection;
+             var in = new BufferedInputStream(Channels.newInputStream(connection));
+             var out = new PrintStream(Channels.newOutputStream(connection), false, StandardCharsets.UTF_8)) {
+            var workingDirectory = readHandshake(in);
+            var scanner = new Scanner(in, StandardCharsets.UTF_8);
+            var console = new SystemConsole(out, out);
+            if (shared == null) {
+                new DrawingApp(scanner, false, console, true, workingDirectory).run();
+            } else {
+                new SharedScript(scanner, new SharedSession(shared), console).run();
+            }
+            out.flush();
+        } catch (IOException ignore) {
+            // Client went away mid-session: nothing to report to
+        }
+    }
+
+    /** Consumes an {@code @cwd} first line and returns its path; otherwise rewinds and returns null. */
+    private static Path readHandshake(BufferedInputStream in) throws IOException {
+        in.mark(HANDSHAKE_LIMIT);
+        var line = new ByteArrayOutputStream();
+        for (int b = in.read(); b != -1 && b != '\n' && line.size() < HANDSHAKE_LIMIT - 1; b = in.read()) {
+            line.write(b);
+        }
+        var text = line.toString(StandardCharsets.UTF_8);
+        if (!text.startsWith(DrawingClient.WORKING_DIRECTORY)) {
+            in.reset();
+            return null;
+        }
+        return Path.of(text.substring(DrawingClient.WORKING_DIRECTORY.length()).strip());
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+        sessions.shutdown();
+        Files.deleteIfExists(socketPath);
+    }
+}
@@ -0,0 +1,69 @@
+package drawing.daemon;
+
+import drawing.canvas.CanvasRenderer;
+import drawing.canvas.SharedSession;
+import drawing.command.BucketFillCommand;
+import drawing.command.Command;
+import drawing.command.DrawLineCommand;
+import drawing.command.DrawRectangleCommand;
+import drawing.command.RedoCommand;
+import drawing.command.UndoCommand;
+import drawing.exception.DrawingException;
+import drawing.io.Console;
+import drawing.parser.CommandParser;
+
+import java.util.Scanner;
+
+/**
+ * REPL for one client of a shared canvas. Same syntax as the local app, but only drawing and undo/redo:
+ * the canvas is created by the daemon, and history is this client's own deltas (see {@link SharedSession}).
+ */
+final class SharedScript {
+
+    private final Scanner scanner;
+    private final SharedSession session;
+    private final Console console;
+    private final CommandParser parser = new CommandParser();
+    private final CanvasRenderer renderer = new CanvasRenderer();
+
+    SharedScript(Scanner scanner, SharedSession session, Console console) {
+        this.scanner = scanner;
+        this.session = session;
+        this.console = console;
+    }
+
+    void run() {
+        while (scanner.hasNextLine()) {
+            var line = scanner.nextLine();
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                var command = parser.parse(line);
+                if (command.shouldQuit()) {
+                    return;
+                }
+                execute(command);
+                console.print(renderer.render(session.canvas().snapshot()));
+            } catch (DrawingException e) {
+                console.println("Error: " + e.getMessage());
+            }
+        }
+    }
+
+    private void execute(Command command) {
+        if (command instanceof DrawLineCommand line) {
+            session.drawLine(line.from(), line.to());
+        } else if (command instanceof DrawRectangleCommand rectangle) {
+            session.drawRectangle(rectangle.corner1(), rectangle.corner2());
+        } else if (command instanceof BucketFillCommand fill) {
+            session.fill(fill.point(), fill.color());
+        } else if (command instanceof UndoCommand) {
+            session.undo();
+        } else if (command instanceof RedoCommand) {
+            session.redo();
+        } else {
+            throw new DrawingException("Not available on a shared canvas");
+        }
+    }
+}
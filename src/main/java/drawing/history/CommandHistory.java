@@ -10,6 +10,12 @@ import java.util.LinkedList;
 /**
  * Pattern: Caretaker (Memento). Manages undo/redo stacks.
  * LinkedList used because ArrayDeque doesn't support null elements.
+ * Undo/redo take ownership of the live canvas (moved to the opposite stack, not copied):
+ * callers replace it with the returned state and must not touch it again.
+ * Stacked states cost far less than 50 raw canvases: char stores share unchanged rows between entries, the other
+ * stores are compressed in the background.
+ * Mapped canvases are edited in place and never snapshotted (a copy would pull the whole file onto the heap):
+ * saving the state of one clears the history instead.
  */
 public final class CommandHistory {
 
@@ -19,8 +25,11 @@ public final class CommandHistory {
     private final Deque<CanvasMemento> redoStack = new LinkedList<>();
 
     public void saveState(Canvas canvas) {
-        var memento = canvas == null ? null : CanvasMemento.from(canvas);
-        undoStack.push(memento);
+        if (canvas != null && canvas.isMapped()) {
+            clear();
+            return;
+        }
+        undoStack.push(capture(canvas == null ? null : CanvasMemento.from(canvas)));
 
         if (undoStack.size() > MAX_HISTORY_SIZE) {
             undoStack.removeLast();
@@ -35,6 +44,11 @@ public final class CommandHistory {
         }
     }
 
+    public void clear() {
+        undoStack.clear();
+        redoStack.clear();
+    }
+
     public boolean canUndo() {
         return !undoStack.isEmpty();
     }
@@ -48,8 +62,7 @@ public final class CommandHistory {
             throw new DrawingException("Nothing to undo");
         }
 
-        var currentMemento = currentCanvas == null ? null : CanvasMemento.from(currentCanvas);
-        redoStack.push(currentMemento);
+        redoStack.push(capture(currentCanvas == null ? null : CanvasMemento.adopt(currentCanvas)));
 
         return undoStack.pop();
     }
@@ -59,9 +72,15 @@ public final class CommandHistory {
             throw new DrawingException("Nothing to redo");
         }
 
-        var currentMemento = currentCanvas == null ? null : CanvasMemento.from(currentCanvas);
-        undoStack.push(currentMemento);
+        undoStack.push(capture(currentCanvas == null ? null : CanvasMemento.adopt(currentCanvas)));
 
         return redoStack.pop();
     }
+
+    private static CanvasMemento capture(CanvasMemento memento) {
+        if (memento != null) {
+            memento.compressInBackground();
+        }
+        return memento;
+    }
 }
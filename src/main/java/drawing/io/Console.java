@@ -1,5 +1,8 @@
 package drawing.io;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
 /**
  * Pattern: Strategy (GoF). Abstracts output for testability.
  * Principle: Dependency Inversion (SOLID).
@@ -11,4 +14,13 @@ public interface Console {
     void println(String message);
 
     void printError(String message);
+
+    /** Pre-encoded UTF-8 frame (one buffer per row). Consoles that can write bytes directly override this. */
+    default void printFrame(ByteBuffer[] frame) {
+        var text = new StringBuilder();
+        for (var buffer : frame) {
+            text.append(StandardCharsets.UTF_8.decode(buffer));
+        }
+        print(text.toString());
+    }
 }
@@ -0,0 +1,25 @@
+package drawing.io;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Pattern: Null Object. Discards all output (batch runs report through their own summary).
+ */
+public final class NullConsole implements Console {
+
+    @Override
+    public void print(String message) {
+    }
+
+    @Override
+    public void println(String message) {
+    }
+
+    @Override
+    public void printError(String message) {
+    }
+
+    @Override
+    public void printFrame(ByteBuffer[] frame) {
+    }
+}
@@ -1,22 +1,46 @@
 package drawing.io;
 
+import drawing.exception.DrawingException;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.WritableByteChannel;
 
 /**
  * Strategy implementation for production. Wraps System.out/err.
+ * Frames skip charset encoding: {@link #stdout()} writes them to file descriptor 1 with one gathering write,
+ * other streams get the bytes as they are. A failed frame write (e.g. stdout closed by {@code | head}) surfaces as
+ * a DrawingException, so the REPL reports it like any other error instead of crashing.
  */
 public final class SystemConsole implements Console {
 
     private final PrintStream out;
     private final PrintStream err;
+    private final WritableByteChannel frames;
 
     public SystemConsole() {
         this(System.out, System.err);
     }
 
     public SystemConsole(PrintStream out, PrintStream err) {
+        this(out, err, Channels.newChannel(out));
+    }
+
+    /** Frames go to {@code frames} (tests pass a failing channel). */
+    SystemConsole(PrintStream out, PrintStream err, WritableByteChannel frames) {
         this.out = out;
         this.err = err;
+        this.frames = frames;
+    }
+
+    /** Console on the process's real stdout; frames bypass System.out (which is flushed first to keep order). */
+    public static SystemConsole stdout() {
+        return new SystemConsole(System.out, System.err, new FileOutputStream(FileDescriptor.out).getChannel());
     }
 
     @Override
@@ -34,4 +58,25 @@ public final class SystemConsole implements Console {
     public void printError(String message) {
         err.println(message);
     }
+
+    @Override
+    public void printFrame(ByteBuffer[] frame) {
+        out.flush();
+        try {
+            if (frames instanceof GatheringByteChannel gathering) {
+                while (frame.length > 0 && frame[frame.length - 1].hasRemaining()) {
+                    gathering.write(frame);
+                }
+            } else {
+                for (var buffer : frame) {
+                    while (buffer.hasRemaining()) {
+                        frames.write(buffer);
+                    }
+                }
+                out.flush();
+            }
+        } catch (IOException e) {
+            throw new DrawingException("Failed to write output: " + e.getMessage());
+        }
+    }
 }
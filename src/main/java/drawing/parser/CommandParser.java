@@ -1,16 +1,26 @@
 package drawing.parser;
 
 import drawing.canvas.Point;
+import drawing.canvas.Viewport;
 import drawing.command.BucketFillCommand;
 import drawing.command.Command;
+import drawing.command.CopyRegionCommand;
 import drawing.command.CreateCanvasCommand;
+import drawing.command.CutRegionCommand;
 import drawing.command.DrawLineCommand;
 import drawing.command.DrawRectangleCommand;
+import drawing.command.ExportCommand;
 import drawing.command.HelpCommand;
+import drawing.command.MapCanvasCommand;
+import drawing.command.MoveRegionCommand;
+import drawing.command.PasteCommand;
 import drawing.command.QuitCommand;
 import drawing.command.RedoCommand;
+import drawing.command.ReplaceColorCommand;
 import drawing.command.SaveCommand;
 import drawing.command.UndoCommand;
+import drawing.command.ViewportCommand;
+import drawing.context.DrawingContext;
 import drawing.exception.DrawingException;
 
 /**
@@ -19,6 +29,8 @@ import drawing.exception.DrawingException;
  */
 public final class CommandParser {
 
+    private static final String IN_PLACE = "inplace";
+
     public Command parse(String input) {
         if (input == null || input.isBlank()) {
             throw new DrawingException("Empty command");
@@ -32,7 +44,13 @@ public final class CommandParser {
             case "L" -> parseLine(parts);
             case "R" -> parseRectangle(parts);
             case "B" -> parseFill(parts);
+            case "A" -> parseReplace(parts);
+            case "Y", "K" -> parseClip(parts, type);
+            case "P" -> parsePaste(parts);
+            case "M" -> parseMove(parts);
             case "S" -> parseSave(parts);
+            case "E" -> parseExport(parts);
+            case "V" -> parseViewport(parts);
             case "U" -> new UndoCommand();
             case "Z" -> new RedoCommand();
             case "H" -> new HelpCommand();
@@ -41,8 +59,15 @@ public final class CommandParser {
         };
     }
 
+    /** A bare number is never taken as a file name: "C 20" and "C 20 4 5" stay usage errors. */
     private Command parseCanvas(String[] p) {
-        require(p, 3, "C <width> <height>");
+        if (p.length == 2 && !isNumber(p[1])) {
+            return new MapCanvasCommand(p[1]);
+        }
+        if (p.length == 4 && !isNumber(p[3])) {
+            return new MapCanvasCommand(p[3], toInt(p[1], "width"), toInt(p[2], "height"));
+        }
+        require(p, 3, "C <width> <height> [<file>] | C <file>");
         return new CreateCanvasCommand(toInt(p[1], "width"), toInt(p[2], "height"));
     }
 
@@ -62,24 +87,82 @@ public final class CommandParser {
 
     private Command parseFill(String[] p) {
         require(p, 4, "B <x> <y> <color>");
-        if (p[3].length() != 1) {
-            throw new DrawingException("Color must be a single character");
-        }
-        var color = p[3].charAt(0);
+        var color = toColor(p[3]);
         return new BucketFillCommand(new Point(toInt(p[1], "x"), toInt(p[2], "y")), color);
     }
 
+    private Command parseReplace(String[] p) {
+        require(p, 3, "A <color> <new-color>");
+        return new ReplaceColorCommand(toColor(p[1]), toColor(p[2]));
+    }
+
+    /** Y copies, K cuts; the clip name is optional. */
+    private Command parseClip(String[] p, String type) {
+        if (p.length != 6) {
+            require(p, 5, type + " <x1> <y1> <x2> <y2> [<name>]");
+        }
+        var corner1 = new Point(toInt(p[1], "x1"), toInt(p[2], "y1"));
+        var corner2 = new Point(toInt(p[3], "x2"), toInt(p[4], "y2"));
+        var name = p.length == 6 ? p[5] : DrawingContext.DEFAULT_CLIP;
+        return "Y".equals(type)
+                ? new CopyRegionCommand(corner1, corner2, name)
+                : new CutRegionCommand(corner1, corner2, name);
+    }
+
+    private Command parsePaste(String[] p) {
+        if (p.length != 4) {
+            require(p, 3, "P <x> <y> [<name>]");
+        }
+        var name = p.length == 4 ? p[3] : DrawingContext.DEFAULT_CLIP;
+        return new PasteCommand(new Point(toInt(p[1], "x"), toInt(p[2], "y")), name);
+    }
+
+    private Command parseMove(String[] p) {
+        require(p, 7, "M <x1> <y1> <x2> <y2> <x> <y>");
+        var corner1 = new Point(toInt(p[1], "x1"), toInt(p[2], "y1"));
+        var corner2 = new Point(toInt(p[3], "x2"), toInt(p[4], "y2"));
+        return new MoveRegionCommand(corner1, corner2, new Point(toInt(p[5], "x"), toInt(p[6], "y")));
+    }
+
     private Command parseSave(String[] p) {
-        require(p, 2, "S <filename>");
+        if (p.length == 3 && IN_PLACE.equals(p[2])) {
+            return new SaveCommand(p[1], true);
+        }
+        require(p, 2, "S <filename> [" + IN_PLACE + "]");
         return new SaveCommand(p[1]);
     }
 
+    private Command parseExport(String[] p) {
+        require(p, 2, "E <filename.png|filename.ppm>");
+        return new ExportCommand(p[1]);
+    }
+
+    private Command parseViewport(String[] p) {
+        if (p.length == 1) {
+            return new ViewportCommand(null);
+        }
+        require(p, 5, "V [<x> <y> <width> <height>]");
+        return new ViewportCommand(new Viewport(
+                toInt(p[1], "x"), toInt(p[2], "y"), toInt(p[3], "width"), toInt(p[4], "height")));
+    }
+
     private void require(String[] parts, int n, String usage) {
         if (parts.length != n) {
             throw new DrawingException("Usage: " + usage);
         }
     }
 
+    private char toColor(String s) {
+        if (s.length() != 1) {
+            throw new DrawingException("Color must be a single character");
+        }
+        return s.charAt(0);
+    }
+
+    private boolean isNumber(String s) {
+        return s.matches("[-+]?\\d+");
+    }
+
     private int toInt(String s, String name) {
         try {
             var val = Integer.parseInt(s);
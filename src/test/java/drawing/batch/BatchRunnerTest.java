@@ -0,0 +1,103 @@
+package drawing.batch;
+
+import drawing.canvas.Canvas;
+import drawing.canvas.CanvasRenderer;
+import drawing.canvas.Point;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests batch execution. Uses @TempDir for scripts and outputs (JUnit 5).
+ */
+class BatchRunnerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path script(String name, String content) throws Exception {
+        var script = tempDir.resolve("scripts").resolve(name);
+        Files.createDirectories(script.getParent());
+        Files.writeString(script, content);
+        return script;
+    }
+
+    @Nested
+    class Running {
+        @Test
+        void savesFinalCanvasOfEachScript() throws Exception {
+            var line = script("line.txt", "C 5 2\nL 1 1 5 1\nQ\n");
+            var output = tempDir.resolve("out");
+
+            var summary = new BatchRunner(2).run(List.of(line), output);
+
+            var expected = new Canvas(5, 2);
+            expected.drawLine(new Point(1, 1), new Point(5, 1));
+            assertEquals(new CanvasRenderer().render(expected), Files.readString(output.resolve("line.txt.out")));
+            assertEquals(0, summary.failedCount());
+        }
+
+        @Test
+        void isolatesScriptsFromEachOther() throws Exception {
+            var scripts = List.of(
+                    script("a.txt", "C 5 2\nB 1 1 a\n"),
+                    script("b.txt", "C 5 2\nB 1 1 b\n"),
+                    script("c.txt", "C 5 2\nB 1 1 c\n"));
+            var output = tempDir.resolve("out");
+
+            new BatchRunner(3).run(scripts, output);
+
+            assertTrue(Files.readString(output.resolve("a.txt.out")).contains("|aaaaa|"));
+            assertTrue(Files.readString(output.resolve("b.txt.out")).contains("|bbbbb|"));
+            assertTrue(Files.readString(output.resolve("c.txt.out")).contains("|ccccc|"));
+        }
+
+        @Test
+        void reportsFailuresAndCommandErrors() throws Exception {
+            var scripts = List.of(
+                    script("empty.txt", "L 1 1 2 1\n"),
+                    script("errors.txt", "C 5 2\nL 0 0 1 1\n"));
+
+            var summary = new BatchRunner(2).run(scripts, tempDir.resolve("out"));
+
+            var results = summary.results();
+            assertTrue(results.get(0).failed());
+            assertFalse(results.get(1).failed());
+            assertEquals(1, results.get(1).errorCount());
+            assertEquals(1, summary.failedCount());
+            assertTrue(summary.format().contains("FAILED: no canvas at end of script"));
+        }
+    }
+
+    @Nested
+    class ResolvingScripts {
+        @Test
+        void listsDirectory() throws Exception {
+            script("b.txt", "Q\n");
+            script("a.txt", "Q\n");
+
+            var scripts = BatchRunner.resolveScripts(tempDir.resolve("scripts").toString());
+
+            assertEquals(List.of("a.txt", "b.txt"), scripts.stream().map(p -> p.getFileName().toString()).toList());
+        }
+
+        @Test
+        void matchesGlob() throws Exception {
+            script("a.txt", "Q\n");
+            script("notes.md", "Q\n");
+
+            var scripts = BatchRunner.resolveScripts(tempDir.resolve("scripts").resolve("*.txt").toString());
+
+            assertEquals(1, scripts.size());
+            assertEquals("a.txt", scripts.get(0).getFileName().toString());
+        }
+    }
+}
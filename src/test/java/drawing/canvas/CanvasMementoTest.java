@@ -5,9 +5,11 @@ import org.junit.jupiter.api.Test;
 import static drawing.canvas.DrawingConstants.EMPTY_CHAR;
 import static drawing.canvas.DrawingConstants.LINE_CHAR;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
- * Tests Memento pattern. Verifies defensive copying and snapshot immutability.
+ * Tests Memento pattern. Verifies defensive copying, snapshot immutability, ownership transfer and compression.
  */
 class CanvasMementoTest {
 
@@ -79,4 +81,79 @@ class CanvasMementoTest {
         assertEquals('o', restored1.getPixel(new Point(1, 1)));
         assertEquals(EMPTY_CHAR, restored2.getPixel(new Point(1, 1)));
     }
+
+    @Test
+    void adoptedBufferIsReleasedWithoutCopy() {
+        var canvas = new Canvas(5, 4);
+        canvas.drawLine(new Point(1, 1), new Point(3, 1));
+
+        var released = CanvasMemento.adopt(canvas).release();
+
+        assertEquals(LINE_CHAR, released.getPixel(new Point(2, 1)));
+        released.drawLine(new Point(1, 2), new Point(3, 2));
+        assertEquals(LINE_CHAR, canvas.getPixel(new Point(1, 2)));
+    }
+
+    @Test
+    void releaseIsSingleUse() {
+        var memento = CanvasMemento.from(new Canvas(3, 3));
+        memento.release();
+
+        assertThrows(IllegalStateException.class, memento::release);
+        assertThrows(IllegalStateException.class, memento::restore);
+    }
+
+    @Test
+    void compressedSnapshotRestoresSamePixels() {
+        var canvas = new Canvas(20, 4, new PalettePixelStore(20, 4));
+        canvas.drawLine(new Point(1, 2), new Point(20, 2));
+        canvas.fill(new Point(1, 1), 'o');
+        var memento = CanvasMemento.from(canvas);
+
+        memento.compress();
+
+        assertTrue(memento.restore().contentEquals(canvas));
+        assertTrue(memento.release().contentEquals(canvas));
+    }
+
+    @Test
+    void compressionShrinksRepetitiveCanvas() {
+        var canvas = new Canvas(1000, 1000, new PalettePixelStore(1000, 1000));
+        canvas.drawLine(new Point(1, 500), new Point(1000, 500));
+        var memento = CanvasMemento.from(canvas);
+
+        memento.compress();
+
+        assertTrue(memento.compressedSize() > 0);
+        assertTrue(memento.compressedSize() < 1000 * 1000 / 100);
+    }
+
+    @Test
+    void charSnapshotKeepsSharedRowsAfterCompress() {
+        var canvas = new Canvas(50, 40, CharPixelStore.blank(50, 40));
+        canvas.drawLine(new Point(1, 3), new Point(50, 3));
+        var first = CanvasMemento.from(canvas);
+        canvas.drawLine(new Point(1, 7), new Point(50, 7));
+        var second = CanvasMemento.from(canvas);
+
+        first.compress();
+        second.compress();
+
+        assertEquals(-1, second.compressedSize());
+        var older = (CharPixelStore) first.release().store();
+        var newer = (CharPixelStore) second.release().store();
+        assertTrue(older.sharesRowWith(newer, 3));
+        assertTrue(older.sharesRowWith(newer, 0));
+        assertTrue(newer.sharesRowWith((CharPixelStore) canvas.store(), 7));
+        assertEquals(2, newer.distinctRows()); // blank + one line row (rows 3 and 7 are equal)
+    }
+
+    @Test
+    void releasedCompressedMementoCannotBeReused() {
+        var memento = CanvasMemento.from(new Canvas(3, 3));
+        memento.compress();
+        memento.release();
+
+        assertThrows(IllegalStateException.class, memento::restore);
+    }
 }
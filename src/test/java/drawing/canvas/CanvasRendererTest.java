@@ -3,11 +3,15 @@ package drawing.canvas;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
- * Tests rendering output with borders. Uses text block literals (Java 15+).
+ * Tests rendering output with borders. Uses text block literals (Java 15+); large frames against a reference.
  */
 class CanvasRendererTest {
 
@@ -101,4 +105,184 @@ class CanvasRendererTest {
         assertTrue(result.contains("|"));
         assertTrue(result.endsWith("----\n"));
     }
+
+    @Test
+    void rendersOnlyViewportWindow() {
+        var canvas = new Canvas(6, 4);
+        canvas.drawLine(new Point(1, 2), new Point(6, 2));
+        canvas.drawLine(new Point(4, 1), new Point(4, 4));
+
+        var result = renderer.render(canvas, new Viewport(3, 2, 3, 2));
+
+        var expected =
+                """
+                        -----
+                        |xxx|
+                        | x |
+                        -----
+                        """;
+
+        assertEquals(expected, result);
+    }
+
+    @Test
+    void clipsViewportToCanvasEdges() {
+        var canvas = new Canvas(4, 2);
+        canvas.drawLine(new Point(4, 1), new Point(4, 2));
+
+        var result = renderer.render(canvas, new Viewport(3, 1, 10, 10));
+
+        var expected =
+                """
+                        ----
+                        | x|
+                        | x|
+                        ----
+                        """;
+
+        assertEquals(expected, result);
+    }
+
+    @Test
+    void fullViewportMatchesPlainRender() {
+        var canvas = new Canvas(5, 3);
+        canvas.fill(new Point(1, 1), 'o');
+
+        assertEquals(renderer.render(canvas), renderer.render(canvas, Viewport.of(canvas)));
+    }
+
+    @Test
+    void reusesFrameForUnchangedCanvas() {
+        var canvas = new Canvas(4, 2);
+
+        var first = renderer.render(canvas);
+
+        assertSame(first, renderer.render(canvas));
+    }
+
+    @Test
+    void rendersAgainAfterMutation() {
+        var canvas = new Canvas(4, 2);
+        renderer.render(canvas);
+
+        canvas.drawLine(new Point(1, 1), new Point(4, 1));
+
+        assertTrue(renderer.render(canvas).contains("|xxxx|"));
+    }
+
+    @Test
+    void keepsFullAndWindowedFramesSideBySide() {
+        var canvas = new Canvas(6, 3);
+        var window = new Viewport(2, 2, 2, 1);
+        var full = renderer.render(canvas);
+        var windowed = renderer.render(canvas, window);
+
+        assertSame(full, renderer.render(canvas));
+        assertSame(windowed, renderer.render(canvas, window));
+    }
+
+    @Test
+    void distinguishesCanvasesWithSameContent() {
+        var small = new Canvas(2, 1);
+        renderer.render(small);
+
+        assertEquals("----\n|  |\n----\n", renderer.render(new Canvas(2, 1)));
+        assertEquals("-----\n|   |\n-----\n", renderer.render(new Canvas(3, 1)));
+    }
+
+    @Test
+    void rowBuffersMatchText() {
+        var canvas = new Canvas(3, 2);
+        canvas.setPixel(new Point(2, 1), 'o');
+        canvas.setPixel(new Point(3, 2), (char) 0x2588);
+
+        assertEquals(renderer.render(canvas), decode(renderer.renderRows(canvas)));
+    }
+
+    @Test
+    void reencodesOnlyDirtyRows() {
+        var canvas = new Canvas(3, 3);
+        renderer.renderRows(canvas);
+        assertEquals(3, renderer.encodedRows());
+
+        canvas.drawLine(new Point(1, 2), new Point(3, 2));
+        var after = renderer.renderRows(canvas);
+        renderer.renderRows(canvas);
+
+        assertEquals(4, renderer.encodedRows());
+        assertEquals("|xxx|\n", decode(new ByteBuffer[]{after[2]}));
+    }
+
+    @Test
+    void rowBuffersFollowViewport() {
+        var canvas = new Canvas(5, 3);
+        canvas.drawLine(new Point(1, 2), new Point(5, 2));
+        var window = new Viewport(2, 2, 2, 1);
+
+        assertEquals(renderer.render(canvas, window), decode(renderer.renderRows(canvas, window)));
+        assertEquals(renderer.render(canvas), decode(renderer.renderRows(canvas)));
+    }
+
+    @Test
+    void handedOutBuffersAreUnaffectedByLaterWrites() {
+        var canvas = new Canvas(2, 1);
+        var before = renderer.renderRows(canvas);
+
+        canvas.drawLine(new Point(1, 1), new Point(2, 1));
+        renderer.renderRows(canvas);
+
+        assertEquals("----\n|  |\n----\n", decode(before));
+    }
+
+    @Test
+    void parallelBandsMatchSequentialRender() {
+        var canvas = new Canvas(1000, 700);
+        for (var y = 1; y <= 700; y += 7) {
+            canvas.drawLine(new Point(1 + y % 13, y), new Point(1000 - y, y));
+        }
+        canvas.drawLine(new Point(500, 1), new Point(500, 700));
+        canvas.fill(new Point(1000, 700), 'o');
+        assertTrue((long) canvas.width() * canvas.height() >= CanvasRenderer.PARALLEL_PIXELS);
+
+        var expected = sequential(canvas, Viewport.of(canvas));
+        var window = new Viewport(3, 5, 990, 690);
+
+        assertEquals(expected, renderer.render(canvas));
+        assertEquals(expected, decode(renderer.renderRows(canvas)));
+        assertEquals(sequential(canvas, window), renderer.render(canvas, window));
+        assertEquals(sequential(canvas, window), decode(renderer.renderRows(canvas, window)));
+    }
+
+    @Test
+    void parallelEncodingRefreshesOnlyDirtyRows() {
+        var canvas = new Canvas(1000, 600);
+        renderer.renderRows(canvas);
+
+        canvas.fill(new Point(1, 1), 'o');
+        canvas.drawLine(new Point(1, 300), new Point(1000, 300));
+
+        assertEquals(sequential(canvas, Viewport.of(canvas)), decode(renderer.renderRows(canvas)));
+        assertEquals(1200, renderer.encodedRows());
+    }
+
+    /** Reference output, one pixel at a time. */
+    private static String sequential(Canvas canvas, Viewport view) {
+        var text = new StringBuilder("-".repeat(view.width() + 2)).append('\n');
+        for (var y = view.y(); y < view.y() + view.height(); y++) {
+            text.append('|');
+            for (var x = view.x(); x < view.x() + view.width(); x++) {
+                text.append(canvas.getPixel(new Point(x, y)));
+            }
+            text.append("|\n");
+        }
+        return text.append("-".repeat(view.width() + 2)).append('\n').toString();
+    }
+
+    private static String decode(ByteBuffer[] frame) {
+        var text = new StringBuilder();
+        for (var buffer : frame) {
+            text.append(StandardCharsets.UTF_8.decode(buffer.duplicate()));
+        }
+        return text.toString();
+    }
 }
@@ -0,0 +1,203 @@
+package drawing.canvas;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests full, in-place and background saves. Uses @TempDir; files are compared with a fresh render.
+ */
+class CanvasSaverTest {
+
+    @TempDir
+    Path tempDir;
+
+    private CanvasRenderer renderer;
+    private CanvasSaver saver;
+    private Path file;
+
+    @BeforeEach
+    void setUp() {
+        renderer = new CanvasRenderer();
+        saver = new CanvasSaver(renderer);
+        file = tempDir.resolve("canvas.txt");
+    }
+
+    private void assertFileShows(Canvas canvas) throws Exception {
+        assertEquals(new CanvasRenderer().render(canvas), Files.readString(file));
+    }
+
+    @Test
+    void fullSaveWritesRenderedCanvas() throws Exception {
+        var canvas = new Canvas(4, 2);
+        canvas.drawLine(new Point(1, 1), new Point(4, 1));
+
+        saver.save(canvas, file);
+
+        assertFileShows(canvas);
+    }
+
+    @Nested
+    class InPlace {
+        @Test
+        void firstSaveWritesEveryRow() throws Exception {
+            var canvas = new Canvas(4, 3);
+
+            assertEquals(3, saver.saveInPlace(canvas, file));
+            assertFileShows(canvas);
+        }
+
+        @Test
+        void rewritesOnlyChangedRows() throws Exception {
+            var canvas = new Canvas(10, 20);
+            saver.saveInPlace(canvas, file);
+
+            canvas.drawLine(new Point(1, 5), new Point(10, 5));
+            canvas.setPixel(new Point(3, 12), 'o');
+
+            assertEquals(2, saver.saveInPlace(canvas, file));
+            assertFileShows(canvas);
+            assertEquals(0, saver.saveInPlace(canvas, file));
+        }
+
+        @Test
+        void continuesFromFullSave() throws Exception {
+            var canvas = new Canvas(5, 5);
+            saver.save(canvas, file);
+
+            canvas.fill(new Point(1, 1), 'o');
+
+            assertEquals(5, saver.saveInPlace(canvas, file));
+            canvas.drawLine(new Point(1, 3), new Point(5, 3));
+            assertEquals(1, saver.saveInPlace(canvas, file));
+            assertFileShows(canvas);
+        }
+
+        @Test
+        void rewritesWholeFileForAnotherCanvas() throws Exception {
+            saver.saveInPlace(new Canvas(6, 4), file);
+            var other = new Canvas(3, 2);
+            other.drawLine(new Point(1, 2), new Point(3, 2));
+
+            assertEquals(2, saver.saveInPlace(other, file));
+            assertFileShows(other);
+        }
+
+        @Test
+        void rewritesWholeFileChangedBehindOurBack() throws Exception {
+            var canvas = new Canvas(4, 3);
+            saver.saveInPlace(canvas, file);
+            Files.writeString(file, "truncated");
+
+            canvas.setPixel(new Point(1, 1), 'o');
+
+            assertEquals(3, saver.saveInPlace(canvas, file));
+            assertFileShows(canvas);
+        }
+
+        @Test
+        void multiByteColorsFallBackToFullRewrite() throws Exception {
+            var canvas = new Canvas(4, 3);
+            saver.saveInPlace(canvas, file);
+
+            canvas.setPixel(new Point(2, 2), (char) 0x2588);
+
+            assertEquals(3, saver.saveInPlace(canvas, file));
+            assertFileShows(canvas);
+            canvas.setPixel(new Point(1, 1), 'o');
+            assertEquals(3, saver.saveInPlace(canvas, file));
+            assertFileShows(canvas);
+        }
+    }
+
+    @Nested
+    class Background {
+        @Test
+        void writesSubmittedSaveAndReports() throws Exception {
+            var canvas = new Canvas(4, 2);
+            canvas.drawLine(new Point(1, 2), new Point(4, 2));
+
+            saver.submit(canvas, file, false);
+            saver.awaitIdle();
+
+            assertFileShows(canvas);
+            assertEquals(List.of(new CanvasSaver.SaveNotice(file.toString(), null)), saver.drainNotices());
+            assertTrue(saver.drainNotices().isEmpty());
+        }
+
+        @Test
+        void repeatedSavesEndWithLatestStateAndNoTempFiles() throws Exception {
+            var canvas = new Canvas(30, 30);
+            for (var y = 1; y <= 30; y++) {
+                canvas.drawLine(new Point(1, y), new Point(y, y));
+                saver.submit(canvas, file, y % 2 == 0);
+            }
+            saver.awaitIdle();
+
+            assertFileShows(canvas);
+            var notices = saver.drainNotices();
+            assertFalse(notices.isEmpty());
+            assertTrue(notices.size() <= 30);
+            try (var files = Files.list(tempDir)) {
+                assertEquals(List.of(file), files.toList());
+            }
+        }
+
+        @Test
+        void savesManyFilesBeyondQueueBound() throws Exception {
+            var canvas = new Canvas(3, 1);
+            for (var i = 0; i < CanvasSaver.MAX_PENDING * 2; i++) {
+                saver.submit(canvas, tempDir.resolve(i + ".txt"), false);
+            }
+            saver.awaitIdle();
+
+            assertEquals(CanvasSaver.MAX_PENDING * 2, saver.drainNotices().size());
+        }
+
+        @Test
+        void atomicSaveReplacesExistingFile() throws Exception {
+            Files.writeString(file, "old content");
+            var canvas = new Canvas(2, 1);
+
+            saver.save(canvas, file);
+
+            assertFileShows(canvas);
+        }
+    }
+
+    @Nested
+    class Mapped {
+        @Test
+        void streamsRowsWithoutEncodingFrame() throws Exception {
+            var canvas = Canvas.createMapped(tempDir.resolve("a.canvas"), 6, 3);
+            canvas.drawLine(new Point(2, 1), new Point(2, 3));
+            canvas.fill(new Point(1, 1), 'o');
+
+            saver.submit(canvas, file, true);
+
+            assertEquals(List.of(new CanvasSaver.SaveNotice(file.toString(), null)), saver.drainNotices());
+            assertFileShows(canvas);
+            assertEquals(0, renderer.encodedRows());
+        }
+
+        @Test
+        void repeatedInPlaceSaveRewritesWholeFile() throws Exception {
+            var canvas = Canvas.createMapped(tempDir.resolve("b.canvas"), 4, 2);
+            saver.saveInPlace(canvas, file);
+            canvas.fill(new Point(1, 1), '\u00e9');
+
+            assertEquals(2, saver.saveInPlace(canvas, file));
+
+            assertFileShows(canvas);
+        }
+    }
+}
@@ -5,11 +5,17 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static drawing.canvas.DrawingConstants.EMPTY_CHAR;
 import static drawing.canvas.DrawingConstants.LINE_CHAR;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Unit tests for Canvas. Uses @Nested for logical grouping (JUnit 5).
@@ -297,4 +303,219 @@ class CanvasTest {
                     () -> canvas.validateBounds(new Point(1, 1), new Point(6, 1)));
         }
     }
+
+    @Nested
+    class Blits {
+        @Test
+        void copyThenPasteStampsRegion() {
+            canvas.drawLine(new Point(1, 1), new Point(2, 1));
+            canvas.setPixel(new Point(1, 2), 'o');
+            var clip = canvas.copyRegion(new Point(2, 2), new Point(1, 1));
+
+            canvas.paste(clip, new Point(4, 3));
+
+            assertEquals(2, clip.width());
+            assertEquals("-------\n|xx   |\n|o    |\n|   xx|\n|   o |\n-------\n",
+                    new CanvasRenderer().render(canvas));
+        }
+
+        @Test
+        void pasteClipsToBounds() {
+            var clip = new Canvas(3, 3).copyRegion(new Point(1, 1), new Point(3, 3));
+            canvas.fill(new Point(1, 1), 'o');
+
+            canvas.paste(clip, new Point(4, 3));
+
+            assertEquals("-------\n|ooooo|\n|ooooo|\n|ooo  |\n|ooo  |\n-------\n",
+                    new CanvasRenderer().render(canvas));
+        }
+
+        @Test
+        void pasteWidensStoreForClipColors() {
+            var bits = new Canvas(3, 1, new BitPixelStore(3, 1));
+            var source = new Canvas(2, 1);
+            source.setPixel(new Point(2, 1), 'q');
+
+            bits.paste(source.copyRegion(new Point(1, 1), new Point(2, 1)), new Point(2, 1));
+
+            assertEquals('q', bits.getPixel(new Point(3, 1)));
+        }
+
+        @Test
+        void clearRegionBlanksRectangleOnly() {
+            canvas.fill(new Point(1, 1), 'o');
+
+            canvas.clearRegion(new Point(4, 2), new Point(2, 3));
+
+            assertEquals("-------\n|ooooo|\n|o   o|\n|o   o|\n|ooooo|\n-------\n",
+                    new CanvasRenderer().render(canvas));
+        }
+
+        @Test
+        void moveOverlappingDownRight() {
+            canvas.drawLine(new Point(1, 1), new Point(3, 1));
+            canvas.setPixel(new Point(1, 2), 'o');
+
+            canvas.moveRegion(new Point(1, 1), new Point(3, 2), new Point(2, 2));
+
+            assertEquals("-------\n|     |\n| xxx |\n| o   |\n|     |\n-------\n",
+                    new CanvasRenderer().render(canvas));
+        }
+
+        @Test
+        void moveMatchesPixelByPixelReference() {
+            var random = new Random(7);
+            for (var round = 0; round < 200; round++) {
+                var w = 1 + random.nextInt(12);
+                var h = 1 + random.nextInt(12);
+                var actual = new Canvas(w, h);
+                var expected = new char[h][w];
+                for (var y = 0; y < h; y++) {
+                    for (var x = 0; x < w; x++) {
+                        expected[y][x] = (char) ('a' + random.nextInt(4));
+                        actual.setPixel(new Point(x + 1, y + 1), expected[y][x]);
+                    }
+                }
+                var c1 = new Point(1 + random.nextInt(w), 1 + random.nextInt(h));
+                var c2 = new Point(1 + random.nextInt(w), 1 + random.nextInt(h));
+                var at = new Point(1 + random.nextInt(w), 1 + random.nextInt(h));
+
+                actual.moveRegion(c1, c2, at);
+                referenceMove(expected, c1, c2, at);
+
+                for (var y = 0; y < h; y++) {
+                    for (var x = 0; x < w; x++) {
+                        assertEquals(expected[y][x], actual.getPixel(new Point(x + 1, y + 1)));
+                    }
+                }
+            }
+        }
+
+        /** Lift the region, blank it, drop it at {@code at}: pixel by pixel, clipped. */
+        private static void referenceMove(char[][] pixels, Point c1, Point c2, Point at) {
+            var x1 = Math.min(c1.x(), c2.x()) - 1;
+            var y1 = Math.min(c1.y(), c2.y()) - 1;
+            var w = Math.abs(c1.x() - c2.x()) + 1;
+            var h = Math.abs(c1.y() - c2.y()) + 1;
+            var lifted = new char[h][w];
+            for (var y = 0; y < h; y++) {
+                for (var x = 0; x < w; x++) {
+                    lifted[y][x] = pixels[y1 + y][x1 + x];
+                    pixels[y1 + y][x1 + x] = EMPTY_CHAR;
+                }
+            }
+            for (var y = 0; y < h && at.y() - 1 + y < pixels.length; y++) {
+                for (var x = 0; x < w && at.x() - 1 + x < pixels[0].length; x++) {
+                    pixels[at.y() - 1 + y][at.x() - 1 + x] = lifted[y][x];
+                }
+            }
+        }
+    }
+
+    @Nested
+    class Versioning {
+        @Test
+        void everyMutationBumpsVersion() {
+            var v0 = canvas.version();
+            canvas.drawLine(new Point(1, 1), new Point(5, 1));
+            var v1 = canvas.version();
+            canvas.fill(new Point(1, 2), 'o');
+            var v2 = canvas.version();
+            canvas.setPixel(new Point(1, 1), 'q');
+
+            assertTrue(v0 < v1 && v1 < v2 && v2 < canvas.version());
+        }
+
+        @Test
+        void noOpFillKeepsVersion() {
+            var before = canvas.version();
+
+            canvas.fill(new Point(1, 1), EMPTY_CHAR);
+
+            assertEquals(before, canvas.version());
+        }
+
+        @Test
+        void separateCanvasesNeverShareVersion() {
+            assertNotEquals(canvas.version(), new Canvas(5, 4).version());
+        }
+    }
+
+    @Nested
+    class ConcurrentReads {
+        @Test
+        void tornOptimisticReadThatThrowsIsRetriedUnderLock() {
+            var attempts = new AtomicInteger();
+
+            var result = canvas.read(() -> {
+                if (attempts.getAndIncrement() == 0) {
+                    var writer = new Thread(() -> canvas.setPixel(new Point(1, 1), 'x'));
+                    writer.start();
+                    assertDoesNotThrow(() -> writer.join());
+                    throw new ArrayIndexOutOfBoundsException("torn");
+                }
+                return canvas.getPixelRaw(0, 0);
+            });
+
+            assertEquals(Character.valueOf('x'), result);
+            assertEquals(2, attempts.get());
+        }
+
+        @Test
+        void readerExceptionWithoutInterleavedWritePropagates() {
+            var attempts = new AtomicInteger();
+
+            assertThrows(IllegalStateException.class, () -> canvas.read(() -> {
+                attempts.incrementAndGet();
+                throw new IllegalStateException("reader bug");
+            }));
+            assertEquals(1, attempts.get());
+        }
+
+        @Test
+        void renderNeverSeesHalfAppliedFill() throws InterruptedException {
+            var big = new Canvas(200, 200);
+            var stop = new AtomicBoolean();
+            var writer = new Thread(() -> {
+                var color = 'a';
+                while (!stop.get()) {
+                    big.fill(new Point(1, 1), color);
+                    color = color == 'a' ? 'b' : 'a';
+                }
+            });
+            writer.start();
+            try {
+                var renderer = new CanvasRenderer();
+                for (var i = 0; i < 200; i++) {
+                    var frame = renderer.render(big).replaceAll("[-|\\n]", "");
+                    var first = frame.charAt(0);
+                    assertTrue(frame.chars().allMatch(c -> c == first), "torn frame at iteration " + i);
+                }
+            } finally {
+                stop.set(true);
+                writer.join();
+            }
+        }
+
+        @Test
+        void snapshotsAreConsistentWhileWriting() throws InterruptedException {
+            var big = new Canvas(100, 100);
+            var writer = new Thread(() -> {
+                for (var i = 0; i < 500; i++) {
+                    big.fill(new Point(1, 1), i % 2 == 0 ? 'a' : 'b');
+                }
+            });
+            writer.start();
+            try {
+                for (var i = 0; i < 200; i++) {
+                    var snapshot = big.copyRegion(new Point(1, 1), new Point(100, 100));
+                    var first = snapshot.row(0)[0];
+                    assertEquals(first, snapshot.row(99)[99]);
+                    assertEquals(first, snapshot.row(72)[49]);
+                }
+            } finally {
+                writer.join();
+            }
+        }
+    }
 }
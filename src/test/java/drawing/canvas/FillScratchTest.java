@@ -0,0 +1,57 @@
+package drawing.canvas;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests generation-stamped visited tracking used by flood fill.
+ */
+class FillScratchTest {
+
+    @Test
+    void visitsEachIndexOncePerGeneration() {
+        var scratch = new FillScratch(10);
+        scratch.begin();
+
+        assertTrue(scratch.visit(3));
+        assertFalse(scratch.visit(3));
+    }
+
+    @Test
+    void newGenerationForgetsPreviousVisits() {
+        var scratch = new FillScratch(10);
+        scratch.begin();
+        scratch.visit(3);
+
+        scratch.begin();
+
+        assertTrue(scratch.visit(3));
+    }
+
+    @Test
+    void clearsStampsWhenGenerationWrapsAround() {
+        var scratch = new FillScratch(10);
+        scratch.begin();
+        scratch.visit(3);
+        scratch.setGeneration(-1);
+
+        scratch.begin();
+
+        assertTrue(scratch.visit(3));
+    }
+
+    @Test
+    void canvasReusesScratchAcrossFills() {
+        var canvas = new Canvas(20, 20);
+        canvas.fill(new Point(1, 1), 'o');
+        var scratch = canvas.fillScratch();
+
+        canvas.fill(new Point(1, 1), '*');
+        canvas.fill(new Point(5, 5), 'o');
+
+        assertSame(scratch, canvas.fillScratch());
+    }
+}
@@ -0,0 +1,169 @@
+package drawing.canvas;
+
+import drawing.exception.DrawingException;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.Adler32;
+import java.util.zip.Inflater;
+
+import static drawing.canvas.DrawingConstants.EMPTY_CHAR;
+import static drawing.canvas.DrawingConstants.LINE_CHAR;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests image export. PNGs are decoded twice: by ImageIO, and by a checking Inflater (verifies the Adler-32).
+ */
+class ImageExporterTest {
+
+    @TempDir
+    Path tempDir;
+
+    /** Tall enough for several strips, so dictionaries and sync flushes are exercised. */
+    private static Canvas drawing() {
+        var canvas = new Canvas(300, 500);
+        canvas.drawLine(new Point(1, 250), new Point(300, 250));
+        canvas.drawLine(new Point(150, 1), new Point(150, 500));
+        canvas.fill(new Point(1, 1), 'o');
+        canvas.fill(new Point(300, 500), '#');
+        return canvas;
+    }
+
+    @Nested
+    class Png {
+        @Test
+        void decodesToCanvasColors() throws Exception {
+            var canvas = drawing();
+            var file = tempDir.resolve("out.png");
+
+            ImageExporter.export(canvas, file);
+
+            var image = ImageIO.read(file.toFile());
+            assertEquals(300, image.getWidth());
+            assertEquals(500, image.getHeight());
+            for (var p : new Point[]{new Point(1, 1), new Point(150, 30), new Point(200, 100), new Point(300, 500)}) {
+                assertEquals(ImageExporter.rgb(canvas.getPixel(p)), image.getRGB(p.x() - 1, p.y() - 1) & 0xFFFFFF);
+            }
+        }
+
+        @Test
+        void stripsFormOneValidZlibStream() throws Exception {
+            var canvas = drawing();
+            var out = new ByteArrayOutputStream();
+            ImageExporter.writePng(canvas, out);
+
+            var inflater = new Inflater();
+            inflater.setInput(idat(out.toByteArray()));
+            var raw = new byte[(1 + 3 * 300) * 500];
+            var length = 0;
+            while (!inflater.finished()) {
+                length += inflater.inflate(raw, length, raw.length - length);
+            }
+
+            assertEquals(raw.length, length);
+            var expected = new Adler32();
+            var scanline = new byte[1 + 3 * 300];
+            for (var y = 0; y < 500; y++) {
+                for (var x = 0; x < 300; x++) {
+                    var rgb = ImageExporter.rgb(canvas.getPixel(new Point(x + 1, y + 1)));
+                    scanline[1 + 3 * x] = (byte) (rgb >>> 16);
+                    scanline[2 + 3 * x] = (byte) (rgb >>> 8);
+                    scanline[3 + 3 * x] = (byte) rgb;
+                }
+                expected.update(scanline);
+            }
+            var actual = new Adler32();
+            actual.update(raw);
+            assertEquals(expected.getValue(), actual.getValue());
+        }
+
+        @Test
+        void combinesChecksumsLikeOneRun() {
+            var data = "the quick brown fox jumps over the lazy dog".repeat(3000).getBytes(StandardCharsets.US_ASCII);
+            var whole = new Adler32();
+            whole.update(data);
+            var first = new Adler32();
+            first.update(data, 0, 70_001);
+            var second = new Adler32();
+            second.update(data, 70_001, data.length - 70_001);
+
+            assertEquals(whole.getValue(),
+                    ImageExporter.combineAdler(first.getValue(), second.getValue(), data.length - 70_001));
+        }
+
+        private static byte[] idat(byte[] png) throws Exception {
+            var in = new DataInputStream(new ByteArrayInputStream(png, 8, png.length - 8));
+            var data = new ByteArrayOutputStream();
+            while (true) {
+                var length = in.readInt();
+                var type = new String(in.readNBytes(4), StandardCharsets.US_ASCII);
+                var chunk = in.readNBytes(length);
+                in.readInt();
+                if (type.equals("IDAT")) {
+                    data.write(chunk);
+                } else if (type.equals("IEND")) {
+                    return data.toByteArray();
+                }
+            }
+        }
+    }
+
+    @Nested
+    class Ppm {
+        @Test
+        void writesHeaderAndRgbTriples() throws Exception {
+            var canvas = new Canvas(3, 2);
+            canvas.drawLine(new Point(1, 1), new Point(3, 1));
+            canvas.setPixel(new Point(2, 2), 'o');
+            var file = tempDir.resolve("out.ppm");
+
+            ImageExporter.export(canvas, file);
+
+            var bytes = Files.readAllBytes(file);
+            var header = "P6\n3 2\n255\n".getBytes(StandardCharsets.US_ASCII);
+            assertArrayEquals(header, Arrays.copyOf(bytes, header.length));
+            assertEquals(header.length + 18, bytes.length);
+            assertEquals(0, bytes[header.length] | bytes[header.length + 8]);
+            var o = ImageExporter.rgb('o');
+            assertEquals((byte) (o >>> 16), bytes[header.length + 12]);
+            assertEquals((byte) 0xFF, bytes[header.length + 9]);
+        }
+    }
+
+    @Nested
+    class Colors {
+        @Test
+        void mapsBlankAndLinesToWhiteAndBlack() {
+            assertEquals(0xFFFFFF, ImageExporter.rgb(EMPTY_CHAR));
+            assertEquals(0x000000, ImageExporter.rgb(LINE_CHAR));
+        }
+
+        @Test
+        void givesNeighbouringCharsDifferentColors() {
+            assertNotEquals(ImageExporter.rgb('a'), ImageExporter.rgb('b'));
+            assertNotEquals(ImageExporter.rgb('o'), ImageExporter.rgb('x'));
+            assertNotEquals(0xFFFFFF, ImageExporter.rgb('o'));
+        }
+    }
+
+    @Test
+    void rejectsUnknownExtensionWithoutCreatingFile() {
+        var file = tempDir.resolve("out.gif");
+
+        assertThrows(DrawingException.class, () -> ImageExporter.export(new Canvas(2, 2), file));
+        assertFalse(Files.exists(file));
+    }
+}
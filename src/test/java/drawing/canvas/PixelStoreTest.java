@@ -0,0 +1,452 @@
+package drawing.canvas;
+
+import drawing.exception.DrawingException;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static drawing.canvas.DrawingConstants.EMPTY_CHAR;
+import static drawing.canvas.DrawingConstants.LINE_CHAR;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests pixel stores: palette indexing, bit packing, promotion, file mapping, and canvases backed by them.
+ */
+class PixelStoreTest {
+
+    @Nested
+    class Palette {
+        @Test
+        void startsBlankWithOneColor() {
+            var store = new PalettePixelStore(4, 2);
+
+            assertEquals(EMPTY_CHAR, store.get(3, 1));
+            assertEquals(1, store.colorCount());
+        }
+
+        @Test
+        void mapsIndicesBackToColors() {
+            var store = new PalettePixelStore(4, 1);
+            store.fillSpan(0, 1, 3, 'o');
+            store.set(3, 0, LINE_CHAR);
+
+            var row = new char[4];
+            store.readRow(0, 0, row, 4);
+
+            assertEquals(" oox", new String(row));
+            assertEquals(3, store.colorCount());
+        }
+
+        @Test
+        void copyIsIndependent() {
+            var store = new PalettePixelStore(2, 1);
+            var copy = store.copy();
+
+            store.set(0, 0, 'o');
+
+            assertEquals(EMPTY_CHAR, copy.get(0, 0));
+        }
+
+        @Test
+        void promotesToCharsWhenPaletteIsFull() {
+            PixelStore store = new PalettePixelStore(PalettePixelStore.MAX_COLORS + 1, 1);
+            for (var i = 1; i < PalettePixelStore.MAX_COLORS; i++) {
+                assertSame(store, store.accepting((char) ('!' + i)));
+                store.set(i, 0, (char) ('!' + i));
+            }
+
+            var extra = (char) 0x2588;
+            var promoted = store.accepting(extra);
+            promoted.set(PalettePixelStore.MAX_COLORS, 0, extra);
+
+            assertInstanceOf(CharPixelStore.class, promoted);
+            assertEquals((char) ('!' + 7), promoted.get(7, 0));
+            assertEquals(extra, promoted.get(PalettePixelStore.MAX_COLORS, 0));
+        }
+
+        @Test
+        void wrapKeepsCharsForTooManyColors() {
+            var rows = new char[1][300];
+            for (var i = 0; i < 300; i++) {
+                rows[0][i] = (char) ('!' + i);
+            }
+
+            assertInstanceOf(CharPixelStore.class, PalettePixelStore.from(rows));
+        }
+    }
+
+    @Nested
+    class SharedRows {
+        @Test
+        void blankCanvasHoldsOneRow() {
+            assertEquals(1, CharPixelStore.blank(50, 40).distinctRows());
+        }
+
+        @Test
+        void copySharesRowsUntilWritten() {
+            var store = CharPixelStore.blank(5, 3);
+            store.set(0, 1, 'o');
+            var copy = (CharPixelStore) store.copy();
+
+            store.set(1, 1, 'o');
+
+            assertTrue(store.sharesRowWith(copy, 0));
+            assertFalse(store.sharesRowWith(copy, 1));
+            assertEquals(EMPTY_CHAR, copy.get(1, 1));
+            assertEquals('o', copy.get(0, 1));
+        }
+
+        @Test
+        void writingCopyLeavesOriginalIntact() {
+            var store = CharPixelStore.blank(5, 2);
+            var copy = store.copy();
+
+            copy.fillSpan(0, 0, 5, LINE_CHAR);
+
+            assertEquals(EMPTY_CHAR, store.get(2, 0));
+        }
+
+        @Test
+        void equalRowsRewrittenBetweenSnapshotsAreShared() {
+            var store = CharPixelStore.blank(7, 2);
+            store.fillSpan(1, 0, 7, 'q');
+            var a = (CharPixelStore) store.copy();
+            store.fillSpan(1, 0, 7, 'o');
+            store.fillSpan(1, 0, 7, 'q');
+
+            var b = (CharPixelStore) store.copy();
+
+            assertTrue(a.sharesRowWith(b, 1));
+        }
+
+        @Test
+        void unrelatedCanvasesDoNotShareRows() {
+            var first = (CharPixelStore) CharPixelStore.blank(7, 2).copy();
+            var second = (CharPixelStore) CharPixelStore.blank(7, 2).copy();
+
+            assertFalse(first.sharesRowWith(second, 0));
+        }
+
+
+        @Test
+        void historyOfUnchangedCanvasAddsNoRows() {
+            var canvas = new Canvas(10, 100, CharPixelStore.blank(10, 100));
+            canvas.drawLine(new Point(1, 1), new Point(10, 1));
+            var snapshots = new CharPixelStore[50];
+            for (var i = 0; i < snapshots.length; i++) {
+                snapshots[i] = (CharPixelStore) canvas.copyStore();
+            }
+
+            assertEquals(2, snapshots[49].distinctRows());
+            assertTrue(snapshots[0].sharesRowWith(snapshots[49], 0));
+        }
+    }
+
+    @Nested
+    class Bits {
+        @Test
+        void fillsSpansAcrossWordBoundaries() {
+            var store = new BitPixelStore(200, 2);
+            store.fillSpan(1, 60, 130, LINE_CHAR);
+
+            assertEquals(EMPTY_CHAR, store.get(59, 1));
+            assertEquals(LINE_CHAR, store.get(60, 1));
+            assertEquals(LINE_CHAR, store.get(129, 1));
+            assertEquals(EMPTY_CHAR, store.get(130, 1));
+            assertEquals(EMPTY_CHAR, store.get(100, 0));
+        }
+
+        @Test
+        void clearsSpansWithinOneWord() {
+            var store = new BitPixelStore(64, 1);
+            store.fillSpan(0, 0, 64, LINE_CHAR);
+
+            store.fillSpan(0, 10, 20, EMPTY_CHAR);
+
+            var row = new char[64];
+            store.readRow(0, 0, row, 64);
+            assertEquals("x".repeat(10) + " ".repeat(10) + "x".repeat(44), new String(row));
+        }
+
+        @Test
+        void promotesToPaletteOnOtherColor() {
+            var store = new BitPixelStore(3, 1);
+            store.set(0, 0, LINE_CHAR);
+
+            var promoted = store.accepting('o');
+            promoted.set(2, 0, 'o');
+
+            assertInstanceOf(PalettePixelStore.class, promoted);
+            assertEquals(LINE_CHAR, promoted.get(0, 0));
+            assertEquals('o', promoted.get(2, 0));
+            assertSame(store, store.accepting(LINE_CHAR));
+        }
+
+        @Test
+        void canvasPromotesOnFirstFill() {
+            var canvas = new Canvas(5, 3, new BitPixelStore(5, 3));
+            canvas.drawLine(new Point(1, 2), new Point(5, 2));
+            assertInstanceOf(BitPixelStore.class, canvas.store());
+
+            canvas.fill(new Point(1, 1), 'o');
+
+            assertInstanceOf(PalettePixelStore.class, canvas.store());
+            assertEquals("-------\n|ooooo|\n|xxxxx|\n|     |\n-------\n", new CanvasRenderer().render(canvas));
+        }
+    }
+
+    @Nested
+    class ReplaceColor {
+        @Test
+        void leavesSharedRowsWithoutTargetShared() {
+            var store = CharPixelStore.blank(5, 3);
+            store.fillSpan(1, 0, 2, 'o');
+            var copy = (CharPixelStore) store.copy();
+
+            assertFalse(store.replace(0, 'o', '.'));
+            assertTrue(store.replace(1, 'o', '.'));
+
+            assertTrue(store.sharesRowWith(copy, 0));
+            assertEquals('.', store.get(1, 1));
+            assertEquals('o', copy.get(1, 1));
+        }
+
+        @Test
+        void remapsPaletteIndicesWithoutAddingTarget() {
+            var store = new PalettePixelStore(4, 2);
+            store.fillSpan(0, 1, 3, 'o');
+
+            assertFalse(store.replace(1, 'q', 'o'));
+            assertTrue(store.replace(0, 'o', '.'));
+
+            var row = new char[4];
+            store.readRow(0, 0, row, 4);
+            assertEquals(" .. ", new String(row));
+            assertEquals(3, store.colorCount());
+        }
+
+        @Test
+        void turnsWholeBitRowIntoReplacement() {
+            var store = new BitPixelStore(100, 2);
+            store.fillSpan(0, 70, 80, LINE_CHAR);
+
+            assertFalse(store.replace(1, LINE_CHAR, EMPTY_CHAR));
+            assertTrue(store.replace(0, LINE_CHAR, EMPTY_CHAR));
+            assertEquals(EMPTY_CHAR, store.get(75, 0));
+            assertTrue(store.replace(0, EMPTY_CHAR, LINE_CHAR));
+            assertFalse(store.replace(0, EMPTY_CHAR, LINE_CHAR));
+            assertEquals(LINE_CHAR, store.get(99, 0));
+        }
+
+        @Test
+        void absentTargetKeepsStoreAndVersion() {
+            var bits = new Canvas(5, 3, new BitPixelStore(5, 3));
+            var palette = new PalettePixelStore(5, 3);
+            var paletteCanvas = new Canvas(5, 3, palette);
+            var version = bits.version();
+
+            bits.replaceColor('q', 'o');
+            paletteCanvas.replaceColor('q', 'o');
+
+            assertInstanceOf(BitPixelStore.class, bits.store());
+            assertEquals(version, bits.version());
+            assertEquals(1, palette.colorCount());
+        }
+
+        @Test
+        void canvasPromotesAndBumpsOnlyChangedRows() {
+            var canvas = new Canvas(5, 3, new BitPixelStore(5, 3));
+            canvas.drawLine(new Point(1, 2), new Point(5, 2));
+            var untouched = canvas.rowVersion(0);
+
+            canvas.replaceColor(LINE_CHAR, 'o');
+
+            assertInstanceOf(PalettePixelStore.class, canvas.store());
+            assertEquals("-------\n|     |\n|ooooo|\n|     |\n-------\n", new CanvasRenderer().render(canvas));
+            assertEquals(untouched, canvas.rowVersion(0));
+        }
+    }
+
+    @Nested
+    class WriteRow {
+        @TempDir
+        Path tempDir;
+
+        @Test
+        void writesSameRowIntoEveryStoreKind() throws Exception {
+            var src = "xx  x".toCharArray();
+            for (var store : new PixelStore[]{CharPixelStore.blank(7, 2), new PalettePixelStore(7, 2),
+                    new BitPixelStore(7, 2), MappedPixelStore.create(tempDir.resolve("row.canvas"), 7, 2)}) {
+                store.writeRow(1, 2, src, src.length);
+
+                var row = new char[7];
+                store.readRow(1, 0, row, 7);
+                assertEquals("  xx  x", new String(row));
+                assertEquals(EMPTY_CHAR, store.get(2, 0));
+            }
+        }
+
+        @Test
+        void unsharesOnlyWrittenRow() {
+            var store = CharPixelStore.blank(4, 2);
+            var copy = (CharPixelStore) store.copy();
+
+            store.writeRow(0, 0, "oooo".toCharArray(), 4);
+
+            assertFalse(store.sharesRowWith(copy, 0));
+            assertTrue(store.sharesRowWith(copy, 1));
+            assertEquals(EMPTY_CHAR, copy.get(0, 0));
+        }
+    }
+
+    @Nested
+    class RowEquality {
+        @Test
+        void comparesAcrossStoreKinds() {
+            var chars = CharPixelStore.blank(3, 1);
+            var palette = new PalettePixelStore(3, 1);
+            chars.set(1, 0, 'o');
+            palette.set(1, 0, 'o');
+
+            assertTrue(chars.rowEquals(0, palette, 3));
+            assertTrue(palette.rowEquals(0, chars, 3));
+        }
+
+        @Test
+        void comparesBitRowsByWord() {
+            var a = new BitPixelStore(70, 1);
+            var b = new BitPixelStore(70, 1);
+            a.set(65, 0, LINE_CHAR);
+
+            assertFalse(a.rowEquals(0, b, 70));
+            b.set(65, 0, LINE_CHAR);
+            assertTrue(a.rowEquals(0, b, 70));
+        }
+
+        @Test
+        void comparesPalettesWithDifferentColorOrder() {
+            var a = new PalettePixelStore(2, 1);
+            var b = new PalettePixelStore(2, 1);
+            a.set(0, 0, 'o');
+            a.set(1, 0, 'x');
+            b.set(1, 0, 'x');
+            b.set(0, 0, 'o');
+
+            assertTrue(a.rowEquals(0, b, 2));
+        }
+    }
+
+    @Nested
+    class Mapped {
+        @TempDir
+        Path tempDir;
+
+        @Test
+        void fillsLikeHeapCanvasWithoutScratch() throws Exception {
+            var mapped = Canvas.createMapped(tempDir.resolve("a.canvas"), 12, 7);
+            var heap = new Canvas(12, 7, CharPixelStore.blank(12, 7));
+            for (var canvas : new Canvas[]{mapped, heap}) {
+                canvas.drawLine(new Point(4, 1), new Point(4, 5));
+                canvas.drawLine(new Point(4, 5), new Point(9, 5));
+                canvas.drawLine(new Point(9, 2), new Point(9, 5));
+                canvas.fill(new Point(1, 1), 'o');
+                canvas.fill(new Point(6, 3), '.');
+            }
+
+            assertTrue(mapped.contentEquals(heap));
+            assertEquals(new CanvasRenderer().render(heap), new CanvasRenderer().render(mapped));
+        }
+
+        @Test
+        void spanFillScansRunsLongerThanOneChunk() throws Exception {
+            var mapped = Canvas.createMapped(tempDir.resolve("wide.canvas"), 700, 6);
+            var heap = new Canvas(700, 6, CharPixelStore.blank(700, 6));
+            for (var canvas : new Canvas[]{mapped, heap}) {
+                canvas.drawLine(new Point(600, 1), new Point(600, 5));
+                canvas.drawLine(new Point(3, 3), new Point(650, 3));
+                canvas.fill(new Point(300, 2), 'o');
+                canvas.fill(new Point(700, 6), '.');
+            }
+
+            assertTrue(mapped.contentEquals(heap));
+            assertEquals('.', mapped.getPixel(new Point(700, 1)));
+            assertEquals('.', mapped.getPixel(new Point(1, 2)));
+        }
+
+        @Test
+        void reopensWithHeaderAndPixels() throws Exception {
+            var file = tempDir.resolve("b.canvas");
+            var store = MappedPixelStore.create(file, 3, 5);
+            store.set(2, 4, 'q');
+
+            var reopened = MappedPixelStore.open(file);
+
+            assertEquals('q', reopened.get(2, 4));
+            assertEquals(16 + 2 * 3 * 5, Files.size(file));
+        }
+
+        @Test
+        void flushLeavesPixelsInFile() throws Exception {
+            var file = tempDir.resolve("d.canvas");
+            var canvas = Canvas.createMapped(file, 3, 2);
+            canvas.setPixel(new Point(3, 2), 'q');
+
+            canvas.flush();
+
+            var bytes = Files.readAllBytes(file);
+            var offset = 16 + 2 * (1 * 3 + 2);
+            assertEquals('q', (char) ((bytes[offset] & 0xFF) << 8 | bytes[offset + 1] & 0xFF));
+        }
+
+        @Test
+        void rejectsTruncatedFile() throws Exception {
+            var file = tempDir.resolve("c.canvas");
+            MappedPixelStore.create(file, 4, 4);
+            try (var channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(20);
+            }
+
+            assertThrows(DrawingException.class, () -> MappedPixelStore.open(file));
+        }
+    }
+
+    @Nested
+    class PaletteCanvas {
+        @Test
+        void drawsFillsAndRendersLikeCharCanvas() {
+            var palette = new Canvas(5, 3, new PalettePixelStore(5, 3));
+            var chars = new Canvas(5, 3, CharPixelStore.blank(5, 3));
+            for (var canvas : new Canvas[]{palette, chars}) {
+                canvas.drawLine(new Point(1, 2), new Point(5, 2));
+                canvas.fill(new Point(1, 1), 'o');
+            }
+
+            var renderer = new CanvasRenderer();
+            assertEquals(renderer.render(chars), renderer.render(palette));
+            assertTrue(palette.contentEquals(chars));
+        }
+
+        @Test
+        void mementoCopiesPaletteStore() {
+            var canvas = new Canvas(3, 1, new PalettePixelStore(3, 1));
+            var memento = CanvasMemento.from(canvas);
+
+            canvas.fill(new Point(1, 1), 'o');
+
+            var restored = memento.restore();
+            assertEquals(EMPTY_CHAR, restored.getPixel(new Point(1, 1)));
+            assertNotSame(canvas.store(), restored.store());
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package drawing.canvas;
+
+import drawing.exception.DrawingException;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Random;
+
+import static drawing.canvas.RegionIndex.TILE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests RegionIndex. Indexed canvases are checked against plain BFS canvases given the same edits.
+ */
+class RegionIndexTest {
+
+    private static final int WIDTH = 3 * TILE + 17;
+    private static final int HEIGHT = 2 * TILE + 9;
+
+    /** Same edits on an indexed and a plain canvas; returns {indexed, plain}. */
+    private static Canvas[] pair() {
+        var indexed = new Canvas(WIDTH, HEIGHT, CharPixelStore.blank(WIDTH, HEIGHT));
+        indexed.regionSize(new Point(1, 1));
+        var plain = new Canvas(WIDTH, HEIGHT, CharPixelStore.blank(WIDTH, HEIGHT));
+        return new Canvas[]{indexed, plain};
+    }
+
+    private static int bfsSize(Canvas canvas, Point start) {
+        var copy = new Canvas(canvas.width(), canvas.height(), canvas.copyStore());
+        var marker = canvas.getPixel(start) == '\u0001' ? '\u0002' : '\u0001';
+        copy.fill(start, marker);
+        var count = 0;
+        for (var y = 1; y <= canvas.height(); y++) {
+            for (var x = 1; x <= canvas.width(); x++) {
+                if (copy.getPixel(new Point(x, y)) == marker) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    @Nested
+    class Fills {
+        @Test
+        void recolorMatchesFloodFill() {
+            var canvases = pair();
+            for (var canvas : canvases) {
+                canvas.drawLine(new Point(TILE, 1), new Point(TILE, HEIGHT - 5));
+                canvas.drawLine(new Point(1, TILE + 3), new Point(WIDTH - 2, TILE + 3));
+                canvas.fill(new Point(1, 1), 'a');
+                canvas.fill(new Point(WIDTH, HEIGHT), 'b');
+                canvas.fill(new Point(TILE + 1, 1), 'a');
+                canvas.drawLine(new Point(2 * TILE, 1), new Point(2 * TILE, TILE + 3));
+                canvas.fill(new Point(WIDTH, 1), 'c');
+                canvas.fill(new Point(1, 1), 'c');
+            }
+
+            assertTrue(canvases[0].contentEquals(canvases[1]));
+            var renderer = new CanvasRenderer();
+            assertEquals(renderer.render(canvases[1]), renderer.render(canvases[0]));
+        }
+
+        @Test
+        void randomEditsMatchFloodFill() {
+            var random = new Random(42);
+            for (var round = 0; round < 20; round++) {
+                var canvases = pair();
+                for (var step = 0; step < 60; step++) {
+                    var from = new Point(1 + random.nextInt(WIDTH), 1 + random.nextInt(HEIGHT));
+                    var to = random.nextBoolean()
+                            ? new Point(1 + random.nextInt(WIDTH), from.y())
+                            : new Point(from.x(), 1 + random.nextInt(HEIGHT));
+                    var color = (char) ('a' + random.nextInt(4));
+                    var fill = random.nextInt(3) > 0 && canvases[1].getPixel(from) != color;
+                    for (var canvas : canvases) {
+                        if (fill) {
+                            canvas.fill(from, color);
+                        } else {
+                            canvas.drawLine(from, to);
+                        }
+                    }
+                }
+                assertTrue(canvases[0].contentEquals(canvases[1]));
+            }
+        }
+
+        @Test
+        void recolorMergesWithSameColoredNeighbours() {
+            var canvas = pair()[0];
+            canvas.drawLine(new Point(TILE + 5, 1), new Point(TILE + 5, HEIGHT));
+            canvas.fill(new Point(1, 1), 'o');
+            canvas.fill(new Point(WIDTH, 1), 'o');
+
+            canvas.fill(new Point(TILE + 5, 1), 'o');
+
+            assertEquals(WIDTH * HEIGHT, canvas.regionSize(new Point(WIDTH, HEIGHT)));
+        }
+
+        @Test
+        void repeatedFillsKeepIndexBuilt() {
+            var canvas = pair()[0];
+            canvas.drawLine(new Point(TILE / 2, 1), new Point(TILE / 2, HEIGHT - 1));
+            for (var i = 0; i < 20; i++) {
+                canvas.fill(new Point(1, 1), (char) ('a' + i % 2));
+            }
+
+            assertEquals('b', canvas.getPixel(new Point(WIDTH, HEIGHT)));
+        }
+    }
+
+    @Nested
+    class Queries {
+        @Test
+        void sizesMatchSearch() {
+            var canvas = pair()[0];
+            canvas.drawLine(new Point(1, 40), new Point(WIDTH, 40));
+            canvas.drawLine(new Point(100, 40), new Point(100, HEIGHT));
+            canvas.setPixel(new Point(150, 100), 'q');
+
+            for (var p : new Point[]{new Point(1, 1), new Point(1, HEIGHT), new Point(WIDTH, HEIGHT),
+                    new Point(100, 40), new Point(150, 100)}) {
+                assertEquals(bfsSize(canvas, p), canvas.regionSize(p), p.toString());
+            }
+        }
+
+        @Test
+        void lineSplitsRegion() {
+            var canvas = pair()[0];
+            assertEquals(WIDTH * HEIGHT, canvas.regionSize(new Point(1, 1)));
+
+            canvas.drawLine(new Point(1, TILE), new Point(WIDTH, TILE));
+
+            assertEquals(WIDTH * (TILE - 1), canvas.regionSize(new Point(1, 1)));
+            assertFalse(canvas.regions().sameRegion(canvas.store(), 0, 0, 0, HEIGHT - 1));
+        }
+
+        @Test
+        void notKeptForMappedCanvases(@TempDir Path tempDir) throws Exception {
+            var canvas = Canvas.createMapped(tempDir.resolve("m.canvas"), 5, 5);
+
+            assertThrows(DrawingException.class, () -> canvas.regionSize(new Point(1, 1)));
+        }
+
+        @Test
+        void builtOnFirstQuery() {
+            var canvas = new Canvas(5, 5, CharPixelStore.blank(5, 5));
+            canvas.regionSize(new Point(1, 1));
+
+            assertNotNull(canvas.regions());
+        }
+    }
+}
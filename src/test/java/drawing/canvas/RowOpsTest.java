@@ -0,0 +1,150 @@
+package drawing.canvas;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests row scans. Scalar and Vector API paths must agree (odd lengths exercise the scalar tails).
+ */
+class RowOpsTest {
+
+    private static final int WIDTH = 1003;
+
+    private static char[] row(char fill) {
+        var row = new char[WIDTH];
+        Arrays.fill(row, fill);
+        return row;
+    }
+
+    @Nested
+    class RunBoundaries {
+        @Test
+        void findsRunEnd() {
+            var row = row(' ');
+            row[700] = 'x';
+
+            assertEquals(700, RowOps.scalarRunEnd(row, 3, WIDTH, ' '));
+            assertEquals(700, VectorRowOps.runEnd(row, 3, WIDTH, ' '));
+        }
+
+        @Test
+        void runEndIsRangeEndWhenRunCoversRange() {
+            var row = row(' ');
+
+            assertEquals(WIDTH, RowOps.scalarRunEnd(row, 0, WIDTH, ' '));
+            assertEquals(WIDTH, VectorRowOps.runEnd(row, 0, WIDTH, ' '));
+            assertEquals(500, VectorRowOps.runEnd(row, 0, 500, ' '));
+        }
+
+        @Test
+        void findsRunStart() {
+            var row = row(' ');
+            row[5] = 'x';
+
+            assertEquals(6, RowOps.scalarRunStart(row, 0, 900, ' '));
+            assertEquals(6, VectorRowOps.runStart(row, 0, 900, ' '));
+        }
+
+        @Test
+        void runStartIsRangeStartWhenRunCoversRange() {
+            var row = row('o');
+
+            assertEquals(2, RowOps.scalarRunStart(row, 2, WIDTH, 'o'));
+            assertEquals(2, VectorRowOps.runStart(row, 2, WIDTH, 'o'));
+        }
+
+        @Test
+        void emptyRunStartsAtRangeEnd() {
+            var row = row('x');
+
+            assertEquals(WIDTH, VectorRowOps.runStart(row, 0, WIDTH, ' '));
+            assertEquals(10, VectorRowOps.runEnd(row, 10, WIDTH, ' '));
+        }
+    }
+
+    @Nested
+    class Replace {
+        @Test
+        void replacesOnlyTargetInsideRange() {
+            var scalar = row(' ');
+            scalar[0] = 'x';
+            scalar[WIDTH - 1] = 'x';
+            var vector = scalar.clone();
+
+            RowOps.scalarReplace(scalar, 1, WIDTH - 1, ' ', 'o');
+            VectorRowOps.replace(vector, 1, WIDTH - 1, ' ', 'o');
+
+            assertEquals('x', vector[0]);
+            assertEquals('o', vector[1]);
+            assertEquals('o', vector[WIDTH - 2]);
+            assertEquals('x', vector[WIDTH - 1]);
+            assertArrayEquals(scalar, vector);
+        }
+    }
+
+    @Nested
+    class IndexOf {
+        @Test
+        void findsFirstMatchPastVectorTail() {
+            var row = row(' ');
+            row[WIDTH - 2] = 'o';
+            row[WIDTH - 1] = 'o';
+
+            assertEquals(WIDTH - 2, RowOps.scalarIndexOf(row, 0, WIDTH, 'o'));
+            assertEquals(WIDTH - 2, VectorRowOps.indexOf(row, 0, WIDTH, 'o'));
+            assertEquals(40, VectorRowOps.indexOf(row(' '), 40, WIDTH, ' '));
+        }
+
+        @Test
+        void absentCharIsRangeEnd() {
+            var row = row(' ');
+            row[900] = 'o';
+
+            assertEquals(900, RowOps.scalarIndexOf(row, 0, 900, 'o'));
+            assertEquals(900, VectorRowOps.indexOf(row, 0, 900, 'o'));
+        }
+    }
+
+    @Nested
+    class Equality {
+        @Test
+        void comparesRows() {
+            var a = row(' ');
+            var b = row(' ');
+
+            assertTrue(RowOps.scalarEquals(a, b));
+            assertTrue(VectorRowOps.equals(a, b));
+
+            b[WIDTH - 1] = 'x';
+            assertFalse(RowOps.scalarEquals(a, b));
+            assertFalse(VectorRowOps.equals(a, b));
+
+            b[WIDTH - 1] = ' ';
+            b[17] = 'x';
+            assertFalse(VectorRowOps.equals(a, b));
+        }
+
+        @Test
+        void rowsOfDifferentLengthDiffer() {
+            assertFalse(VectorRowOps.equals(new char[8], new char[9]));
+        }
+    }
+
+    @Test
+    void canvasContentEquality() {
+        var a = new Canvas(50, 3);
+        var b = new Canvas(50, 3);
+        assertTrue(a.contentEquals(b));
+
+        b.drawLine(new Point(50, 3), new Point(50, 3));
+        assertFalse(a.contentEquals(b));
+        assertFalse(a.contentEquals(new Canvas(50, 4)));
+    }
+}
@@ -0,0 +1,45 @@
+package drawing.canvas;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests per-row RLE round trips, including long runs (multi-byte varints) and non-ASCII colors.
+ */
+class RowRunCodecTest {
+
+    private static char[][] roundTrip(char[][] rows) {
+        var width = rows[0].length;
+        var encoded = RowRunCodec.encode(new CharPixelStore(rows), width, rows.length);
+        return RowRunCodec.decode(encoded, width, rows.length);
+    }
+
+    @Test
+    void roundTripsMixedRows() {
+        var rows = new char[][]{" xxo ".toCharArray(), "ooooo".toCharArray(), "x x x".toCharArray()};
+
+        assertArrayEquals(rows, roundTrip(rows));
+    }
+
+    @Test
+    void roundTripsLongRunsAndWideChars() {
+        var rows = new char[2][1000];
+        Arrays.fill(rows[0], ' ');
+        Arrays.fill(rows[1], (char) 0x2588);
+        rows[1][999] = 'x';
+
+        assertArrayEquals(rows, roundTrip(rows));
+    }
+
+    @Test
+    void encodesUniformRowInFewBytes() {
+        var rows = new char[1][1000];
+        Arrays.fill(rows[0], ' ');
+
+        assertEquals(3, RowRunCodec.encode(new CharPixelStore(rows), 1000, 1).length);
+    }
+}
@@ -0,0 +1,218 @@
+package drawing.canvas;
+
+import drawing.exception.DrawingException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static drawing.canvas.DrawingConstants.EMPTY_CHAR;
+import static drawing.canvas.DrawingConstants.LINE_CHAR;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests SharedCanvas/SharedSession: per-client undo scope and concurrent writers across lock stripes.
+ */
+class SharedSessionTest {
+
+    private SharedCanvas canvas;
+    private SharedSession alice;
+    private SharedSession bob;
+
+    @BeforeEach
+    void setUp() {
+        canvas = new SharedCanvas(20, 40);
+        alice = new SharedSession(canvas);
+        bob = new SharedSession(canvas);
+    }
+
+    @Nested
+    class Drawing {
+        @Test
+        void drawsLinesAndRectangles() {
+            alice.drawLine(new Point(1, 1), new Point(20, 1));
+            bob.drawRectangle(new Point(2, 3), new Point(5, 6));
+
+            assertEquals(LINE_CHAR, canvas.getPixel(new Point(20, 1)));
+            assertEquals(LINE_CHAR, canvas.getPixel(new Point(5, 6)));
+            assertEquals(EMPTY_CHAR, canvas.getPixel(new Point(3, 4)));
+        }
+
+        @Test
+        void fillSpansSeveralStripes() {
+            alice.drawLine(new Point(10, 1), new Point(10, 40));
+
+            bob.fill(new Point(1, 1), 'o');
+
+            assertEquals('o', canvas.getPixel(new Point(9, 40)));
+            assertEquals(EMPTY_CHAR, canvas.getPixel(new Point(11, 40)));
+        }
+
+        @Test
+        void rejectsDiagonalLineAndReservedFillColor() {
+            assertThrows(DrawingException.class, () -> alice.drawLine(new Point(1, 1), new Point(2, 2)));
+            assertThrows(DrawingException.class, () -> alice.fill(new Point(1, 1), LINE_CHAR));
+            assertThrows(DrawingException.class, () -> alice.fill(new Point(21, 1), 'o'));
+        }
+    }
+
+    @Nested
+    class ScopedUndo {
+        @Test
+        void undoRevertsOnlyOwnEdits() {
+            alice.drawLine(new Point(1, 1), new Point(20, 1));
+            bob.drawLine(new Point(1, 2), new Point(20, 2));
+
+            alice.undo();
+
+            assertEquals(EMPTY_CHAR, canvas.getPixel(new Point(1, 1)));
+            assertEquals(LINE_CHAR, canvas.getPixel(new Point(1, 2)));
+        }
+
+        @Test
+        void undoKeepsPixelsRepaintedByOthers() {
+            alice.fill(new Point(1, 1), 'a');
+            bob.fill(new Point(1, 1), 'b');
+
+            alice.undo();
+
+            assertEquals('b', canvas.getPixel(new Point(7, 7)));
+        }
+
+        @Test
+        void undoDoesNotEraseLinesThatWereAlreadyThere() {
+            bob.drawLine(new Point(1, 5), new Point(20, 5));
+            alice.drawRectangle(new Point(1, 5), new Point(20, 10));
+
+            alice.undo();
+
+            assertEquals(LINE_CHAR, canvas.getPixel(new Point(10, 5)));
+            assertEquals(EMPTY_CHAR, canvas.getPixel(new Point(10, 10)));
+        }
+
+        @Test
+        void redoReappliesOwnEdit() {
+            alice.fill(new Point(1, 1), 'a');
+            alice.undo();
+
+            alice.redo();
+
+            assertEquals('a', canvas.getPixel(new Point(20, 40)));
+        }
+
+        @Test
+        void historyIsPerClient() {
+            alice.drawLine(new Point(1, 1), new Point(20, 1));
+
+            assertThrows(DrawingException.class, () -> bob.undo());
+        }
+    }
+
+    @Nested
+    class ConcurrentWriters {
+        @Test
+        void writersInSeparateStripesAllLand() throws InterruptedException {
+            var big = new SharedCanvas(50, 8 * SharedCanvas.STRIPE_ROWS);
+            var start = new CountDownLatch(1);
+            var threads = new ArrayList<Thread>();
+            for (var w = 0; w < 8; w++) {
+                var row = w * SharedCanvas.STRIPE_ROWS + 1;
+                var session = new SharedSession(big);
+                var thread = new Thread(() -> {
+                    awaitQuietly(start);
+                    for (var i = 0; i < 200; i++) {
+                        session.drawLine(new Point(1, row), new Point(50, row));
+                        session.undo();
+                        session.redo();
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+            start.countDown();
+            for (var thread : threads) {
+                thread.join();
+            }
+
+            for (var w = 0; w < 8; w++) {
+                assertEquals(LINE_CHAR, big.getPixel(new Point(50, w * SharedCanvas.STRIPE_ROWS + 1)));
+            }
+        }
+
+        @Test
+        void disjointWritersDoNotWaitForHeldStripe() throws InterruptedException {
+            var big = new SharedCanvas(30, 3 * SharedCanvas.STRIPE_ROWS);
+            var top = SharedCanvas.STRIPE_ROWS;
+            var lower = new SharedSession(big);
+            var blocked = new SharedSession(big);
+            var sameStripe = new Thread(() -> blocked.drawLine(new Point(1, 1), new Point(30, 1)));
+            big.lockRows(0, top - 1);
+            try {
+                var otherStripes = new Thread(() -> {
+                    lower.drawRectangle(new Point(1, top + 1), new Point(30, 3 * top));
+                    lower.fill(new Point(2, top + 2), 'o');
+                    lower.undo();
+                    lower.redo();
+                });
+                otherStripes.start();
+                otherStripes.join(10_000);
+                assertFalse(otherStripes.isAlive());
+
+                sameStripe.start();
+                sameStripe.join(200);
+                assertTrue(sameStripe.isAlive());
+            } finally {
+                big.unlockRows(0, top - 1);
+            }
+            sameStripe.join(10_000);
+
+            assertFalse(sameStripe.isAlive());
+            assertEquals('o', big.getPixel(new Point(15, 2 * top)));
+            assertEquals(LINE_CHAR, big.getPixel(new Point(30, 1)));
+        }
+
+        @Test
+        void overlappingFillsDoNotDeadlock() throws InterruptedException {
+            var big = new SharedCanvas(30, 6 * SharedCanvas.STRIPE_ROWS);
+            var threads = new ArrayList<Thread>();
+            for (var w = 0; w < 4; w++) {
+                var session = new SharedSession(big);
+                var startRow = 1 + w * (big.height() - 1) / 3;
+                var color = (char) ('a' + w);
+                var thread = new Thread(() -> {
+                    for (var i = 0; i < 50; i++) {
+                        session.fill(new Point(1 + i % 30, startRow), color);
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+            for (var thread : threads) {
+                thread.join(10_000);
+                assertFalse(thread.isAlive());
+            }
+
+            var snapshot = big.snapshot();
+            var first = snapshot.getPixel(new Point(1, 1));
+            assertTrue(first >= 'a' && first <= 'd');
+            for (var y = 1; y <= big.height(); y++) {
+                for (var x = 1; x <= big.width(); x++) {
+                    assertEquals(first, snapshot.getPixel(new Point(x, y)));
+                }
+            }
+        }
+
+        private static void awaitQuietly(CountDownLatch latch) {
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package drawing.canvas;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests Viewport clipping against canvas bounds.
+ */
+class ViewportTest {
+
+    @Test
+    void fullViewportCoversCanvas() {
+        assertEquals(new Viewport(1, 1, 20, 4), Viewport.of(new Canvas(20, 4)));
+    }
+
+    @Test
+    void keepsViewportInsideCanvas() {
+        var canvas = new Canvas(20, 10);
+
+        assertEquals(new Viewport(5, 3, 4, 2), new Viewport(5, 3, 4, 2).clip(canvas));
+    }
+
+    @Test
+    void shrinksViewportCrossingEdges() {
+        var canvas = new Canvas(20, 10);
+
+        assertEquals(new Viewport(15, 8, 6, 3), new Viewport(15, 8, 50, 50).clip(canvas));
+    }
+
+    @Test
+    void pullsOriginBackOntoSmallerCanvas() {
+        var canvas = new Canvas(5, 4);
+
+        assertEquals(new Viewport(5, 4, 1, 1), new Viewport(10, 10, 3, 3).clip(canvas));
+    }
+}
@@ -0,0 +1,73 @@
+package drawing.command;
+
+import drawing.canvas.Point;
+import drawing.context.DrawingContext;
+import drawing.exception.DrawingException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static drawing.canvas.DrawingConstants.LINE_CHAR;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests CopyRegionCommand. Verifies named clips and that the canvas is left untouched.
+ */
+class CopyRegionCommandTest {
+
+    private DrawingContext context;
+
+    @BeforeEach
+    void setUp() {
+        context = new DrawingContext();
+        new CreateCanvasCommand(6, 4).execute(context);
+        new DrawLineCommand(new Point(1, 1), new Point(3, 1)).execute(context);
+    }
+
+    @Nested
+    class Copy {
+        @Test
+        void storesClipUnderName() {
+            new CopyRegionCommand(new Point(1, 1), new Point(3, 2), "bar").execute(context);
+
+            var clip = context.requireClip("bar");
+            assertEquals(3, clip.width());
+            assertEquals(2, clip.height());
+            assertEquals(LINE_CHAR, context.getCanvas().getPixel(new Point(1, 1)));
+        }
+
+        @Test
+        void clipSurvivesNewCanvas() {
+            new CopyRegionCommand(new Point(1, 1), new Point(3, 1), "bar").execute(context);
+            new CreateCanvasCommand(4, 4).execute(context);
+
+            new PasteCommand(new Point(2, 3), "bar").execute(context);
+
+            assertEquals(LINE_CHAR, context.getCanvas().getPixel(new Point(4, 3)));
+        }
+
+        @Test
+        void doesNotModifyCanvas() {
+            assertFalse(new CopyRegionCommand(new Point(1, 1), new Point(1, 1), "a").modifiesCanvas());
+        }
+    }
+
+    @Nested
+    class Validation {
+        @Test
+        void rejectsOutOfBoundsCorner() {
+            var command = new CopyRegionCommand(new Point(1, 1), new Point(7, 1), "a");
+
+            assertThrows(DrawingException.class, () -> command.execute(context));
+        }
+
+        @Test
+        void requiresCanvas() {
+            var command = new CopyRegionCommand(new Point(1, 1), new Point(2, 2), "a");
+
+            assertThrows(DrawingException.class, () -> command.execute(new DrawingContext()));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package drawing.command;
+
+import drawing.canvas.CanvasRenderer;
+import drawing.canvas.Point;
+import drawing.context.DrawingContext;
+import drawing.exception.DrawingException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests CutRegionCommand. Verifies the region is blanked, kept as a clip, and restored by one undo.
+ */
+class CutRegionCommandTest {
+
+    private DrawingContext context;
+
+    @BeforeEach
+    void setUp() {
+        context = new DrawingContext();
+        new CreateCanvasCommand(4, 2).execute(context);
+        new BucketFillCommand(new Point(1, 1), 'o').execute(context);
+    }
+
+    @Nested
+    class Cut {
+        @Test
+        void blanksRegionAndKeepsClip() {
+            new CutRegionCommand(new Point(2, 1), new Point(3, 2), "mid").execute(context);
+
+            assertEquals("------\n|o  o|\n|o  o|\n------\n", new CanvasRenderer().render(context.getCanvas()));
+            assertEquals(2, context.requireClip("mid").width());
+        }
+
+        @Test
+        void undoRestoresPixelsInOneStep() {
+            context.getHistory().saveState(context.getCanvas());
+            new CutRegionCommand(new Point(1, 1), new Point(4, 2), "all").execute(context);
+
+            new UndoCommand().execute(context);
+
+            assertEquals("------\n|oooo|\n|oooo|\n------\n", new CanvasRenderer().render(context.getCanvas()));
+        }
+    }
+
+    @Nested
+    class Validation {
+        @Test
+        void outOfBoundsCutLeavesCanvasAndClipsAlone() {
+            var command = new CutRegionCommand(new Point(1, 1), new Point(5, 2), "bad");
+
+            assertThrows(DrawingException.class, () -> command.execute(context));
+            assertThrows(DrawingException.class, () -> context.requireClip("bad"));
+            assertEquals('o', context.getCanvas().getPixel(new Point(1, 1)));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package drawing.command;
+
+import drawing.canvas.Canvas;
+import drawing.context.DrawingContext;
+import drawing.exception.DrawingException;
+import drawing.io.TestConsole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests ExportCommand. Uses @TempDir; image contents are covered by ImageExporterTest.
+ */
+class ExportCommandTest {
+
+    @TempDir
+    Path tempDir;
+
+    private DrawingContext context;
+    private TestConsole console;
+
+    @BeforeEach
+    void setUp() {
+        console = new TestConsole();
+        context = new DrawingContext(console);
+    }
+
+    @Test
+    void exportsAndConfirms() {
+        context.setCanvas(new Canvas(4, 3));
+        var file = tempDir.resolve("drawing.png");
+
+        new ExportCommand(file.toString()).execute(context);
+
+        assertTrue(Files.exists(file));
+        assertTrue(console.getOutput().contains("Canvas exported to: " + file));
+    }
+
+    @Test
+    void requiresCanvas() {
+        assertThrows(DrawingException.class, () -> new ExportCommand("x.png").execute(context));
+    }
+
+    @Test
+    void reportsWriteFailure() {
+        context.setCanvas(new Canvas(4, 3));
+
+        var ex = assertThrows(DrawingException.class,
+                () -> new ExportCommand(tempDir.resolve("missing/drawing.ppm").toString()).execute(context));
+
+        assertTrue(ex.getMessage().startsWith("Failed to export"));
+    }
+
+    @Test
+    void doesNotModifyCanvas() {
+        assertFalse(new ExportCommand("x.png").modifiesCanvas());
+        assertEquals("x.png", new ExportCommand("x.png").filename());
+    }
+}
@@ -0,0 +1,114 @@
+package drawing.command;
+
+import drawing.canvas.Point;
+import drawing.context.DrawingContext;
+import drawing.exception.DrawingException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static drawing.canvas.DrawingConstants.EMPTY_CHAR;
+import static drawing.canvas.DrawingConstants.LINE_CHAR;
+import static drawing.canvas.DrawingConstants.MAX_CANVAS_WIDTH;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests MapCanvasCommand. Uses @TempDir; reopening a file stands in for a restart.
+ */
+class MapCanvasCommandTest {
+
+    @TempDir
+    Path tempDir;
+
+    private DrawingContext context;
+    private Path file;
+
+    @BeforeEach
+    void setUp() {
+        context = new DrawingContext();
+        file = tempDir.resolve("drawing.canvas");
+    }
+
+    @Nested
+    class Creation {
+        @Test
+        void createsBlankMappedCanvas() {
+            new MapCanvasCommand(file.toString(), 6, 3).execute(context);
+
+            var canvas = context.getCanvas();
+            assertTrue(canvas.isMapped());
+            assertEquals(6, canvas.width());
+            assertEquals(EMPTY_CHAR, canvas.getPixel(new Point(6, 3)));
+            assertTrue(Files.exists(file));
+        }
+
+        @Test
+        void allowsSizesBeyondHeapCanvasLimit() {
+            new MapCanvasCommand(file.toString(), MAX_CANVAS_WIDTH + 500, 2).execute(context);
+
+            assertEquals(MAX_CANVAS_WIDTH + 500, context.getCanvas().width());
+            assertEquals(MAX_CANVAS_WIDTH, context.getViewport().width());
+        }
+
+        @Test
+        void refusesToOverwriteExistingFile() throws Exception {
+            Files.writeString(file, "keep me");
+
+            var ex = assertThrows(DrawingException.class,
+                    () -> new MapCanvasCommand(file.toString(), 5, 5).execute(context));
+
+            assertTrue(ex.getMessage().contains("already exists"));
+            assertEquals("keep me", Files.readString(file));
+        }
+    }
+
+    @Nested
+    class Reopening {
+        @Test
+        void keepsEditsWithoutSaving() {
+            new MapCanvasCommand(file.toString(), 8, 4).execute(context);
+            context.getCanvas().drawLine(new Point(1, 2), new Point(8, 2));
+            context.getCanvas().fill(new Point(1, 1), 'o');
+
+            var reopened = new DrawingContext();
+            new MapCanvasCommand(file.toString()).execute(reopened);
+
+            var canvas = reopened.getCanvas();
+            assertEquals(8, canvas.width());
+            assertEquals(4, canvas.height());
+            assertEquals('o', canvas.getPixel(new Point(8, 1)));
+            assertEquals(LINE_CHAR, canvas.getPixel(new Point(4, 2)));
+            assertEquals(EMPTY_CHAR, canvas.getPixel(new Point(4, 3)));
+        }
+
+        @Test
+        void rejectsMissingAndForeignFiles() throws Exception {
+            assertThrows(DrawingException.class, () -> new MapCanvasCommand(file.toString()).execute(context));
+
+            Files.writeString(file, "-----\n|   |\n-----\n");
+            var ex = assertThrows(DrawingException.class, () -> new MapCanvasCommand(file.toString()).execute(context));
+            assertTrue(ex.getMessage().contains("Not a mapped canvas"));
+        }
+    }
+
+    @Nested
+    class History {
+        @Test
+        void clearsHistoryAndStaysOutOfIt() {
+            context.getHistory().saveState(null);
+            new CreateCanvasCommand(3, 3).execute(context);
+
+            new MapCanvasCommand(file.toString(), 4, 4).execute(context);
+            context.getHistory().saveState(context.getCanvas());
+
+            assertFalse(context.getHistory().canUndo());
+        }
+    }
+}
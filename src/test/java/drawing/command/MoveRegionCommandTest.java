@@ -0,0 +1,65 @@
+package drawing.command;
+
+import drawing.canvas.CanvasRenderer;
+import drawing.canvas.Point;
+import drawing.context.DrawingContext;
+import drawing.exception.DrawingException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests MoveRegionCommand. Verifies overlapping moves in both directions and clipping.
+ */
+class MoveRegionCommandTest {
+
+    private DrawingContext context;
+
+    @BeforeEach
+    void setUp() {
+        context = new DrawingContext();
+        new CreateCanvasCommand(5, 3).execute(context);
+        new DrawLineCommand(new Point(2, 2), new Point(4, 2)).execute(context);
+    }
+
+    private String render() {
+        return new CanvasRenderer().render(context.getCanvas());
+    }
+
+    @Nested
+    class Move {
+        @Test
+        void movesOverlappingRegionLeft() {
+            new MoveRegionCommand(new Point(2, 2), new Point(4, 2), new Point(1, 2)).execute(context);
+
+            assertEquals("-------\n|     |\n|xxx  |\n|     |\n-------\n", render());
+        }
+
+        @Test
+        void movesOverlappingRegionUp() {
+            new MoveRegionCommand(new Point(2, 2), new Point(4, 3), new Point(2, 1)).execute(context);
+
+            assertEquals("-------\n| xxx |\n|     |\n|     |\n-------\n", render());
+        }
+
+        @Test
+        void clipsAtRightEdge() {
+            new MoveRegionCommand(new Point(2, 2), new Point(4, 2), new Point(4, 3)).execute(context);
+
+            assertEquals("-------\n|     |\n|     |\n|   xx|\n-------\n", render());
+        }
+    }
+
+    @Nested
+    class Validation {
+        @Test
+        void rejectsTargetOutsideCanvas() {
+            var command = new MoveRegionCommand(new Point(2, 2), new Point(4, 2), new Point(1, 4));
+
+            assertThrows(DrawingException.class, () -> command.execute(context));
+        }
+    }
+}
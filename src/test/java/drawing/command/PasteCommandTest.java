@@ -0,0 +1,67 @@
+package drawing.command;
+
+import drawing.canvas.CanvasRenderer;
+import drawing.canvas.Point;
+import drawing.context.DrawingContext;
+import drawing.exception.DrawingException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests PasteCommand. Verifies repeated stamping, clipping at the edges, and unknown clip names.
+ */
+class PasteCommandTest {
+
+    private DrawingContext context;
+
+    @BeforeEach
+    void setUp() {
+        context = new DrawingContext();
+        new CreateCanvasCommand(6, 3).execute(context);
+        new DrawLineCommand(new Point(1, 1), new Point(2, 1)).execute(context);
+        new CopyRegionCommand(new Point(1, 1), new Point(2, 1), DrawingContext.DEFAULT_CLIP).execute(context);
+    }
+
+    @Nested
+    class Stamp {
+        @Test
+        void stampsDefaultClipRepeatedly() {
+            new PasteCommand(new Point(1, 2), DrawingContext.DEFAULT_CLIP).execute(context);
+            new PasteCommand(new Point(4, 3), DrawingContext.DEFAULT_CLIP).execute(context);
+
+            assertEquals("--------\n|xx    |\n|xx    |\n|   xx |\n--------\n",
+                    new CanvasRenderer().render(context.getCanvas()));
+        }
+
+        @Test
+        void dropsPartOutsideCanvas() {
+            new PasteCommand(new Point(6, 2), DrawingContext.DEFAULT_CLIP).execute(context);
+
+            assertEquals("--------\n|xx    |\n|     x|\n|      |\n--------\n",
+                    new CanvasRenderer().render(context.getCanvas()));
+        }
+    }
+
+    @Nested
+    class Validation {
+        @Test
+        void rejectsUnknownClip() {
+            var command = new PasteCommand(new Point(1, 1), "nope");
+
+            var ex = assertThrows(DrawingException.class, () -> command.execute(context));
+            assertTrue(ex.getMessage().contains("nope"));
+        }
+
+        @Test
+        void rejectsAnchorOutsideCanvas() {
+            var command = new PasteCommand(new Point(7, 1), DrawingContext.DEFAULT_CLIP);
+
+            assertThrows(DrawingException.class, () -> command.execute(context));
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package drawing.command;
+
+import drawing.canvas.CanvasRenderer;
+import drawing.canvas.Point;
+import drawing.context.DrawingContext;
+import drawing.exception.DrawingException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static drawing.canvas.DrawingConstants.EMPTY_CHAR;
+import static drawing.canvas.DrawingConstants.LINE_CHAR;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests ReplaceColorCommand. Verifies disconnected regions are recolored and undo takes one step.
+ */
+class ReplaceColorCommandTest {
+
+    private DrawingContext context;
+
+    @BeforeEach
+    void setUp() {
+        context = new DrawingContext();
+        new CreateCanvasCommand(5, 3).execute(context);
+        new DrawLineCommand(new Point(3, 1), new Point(3, 3)).execute(context);
+        new BucketFillCommand(new Point(1, 1), 'o').execute(context);
+        new BucketFillCommand(new Point(5, 1), 'o').execute(context);
+    }
+
+    @Nested
+    class Replace {
+        @Test
+        void recolorsDisconnectedRegions() {
+            new ReplaceColorCommand('o', '.').execute(context);
+
+            assertEquals("-------\n|..x..|\n|..x..|\n|..x..|\n-------\n",
+                    new CanvasRenderer().render(context.getCanvas()));
+        }
+
+        @Test
+        void recolorsLines() {
+            new ReplaceColorCommand(LINE_CHAR, EMPTY_CHAR).execute(context);
+
+            assertEquals(EMPTY_CHAR, context.getCanvas().getPixel(new Point(3, 2)));
+            assertEquals('o', context.getCanvas().getPixel(new Point(2, 2)));
+        }
+
+        @Test
+        void absentColorChangesNothing() {
+            var version = context.getCanvas().version();
+
+            new ReplaceColorCommand('q', '.').execute(context);
+
+            assertEquals(version, context.getCanvas().version());
+        }
+
+        @Test
+        void undoRestoresWholeCanvasInOneStep() {
+            var before = new CanvasRenderer().render(context.getCanvas());
+            context.getHistory().saveState(context.getCanvas());
+            new ReplaceColorCommand('o', '.').execute(context);
+
+            new UndoCommand().execute(context);
+
+            assertEquals(before, new CanvasRenderer().render(context.getCanvas()));
+        }
+    }
+
+    @Nested
+    class Validation {
+        @Test
+        void rejectsLineCharAsReplacement() {
+            var command = new ReplaceColorCommand('o', LINE_CHAR);
+
+            assertThrows(DrawingException.class, () -> command.execute(context));
+        }
+
+        @Test
+        void requiresCanvas() {
+            var command = new ReplaceColorCommand('o', '.');
+
+            assertThrows(DrawingException.class, () -> command.execute(new DrawingContext()));
+        }
+    }
+}
@@ -13,12 +13,13 @@ import org.junit.jupiter.api.io.TempDir;
 import java.nio.file.Files;
 import java.nio.file.Path;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
- * Tests SaveCommand. Uses @TempDir for file I/O isolation (JUnit 5).
+ * Tests SaveCommand. Uses @TempDir for file I/O isolation (JUnit 5); waits for the background writer.
  */
 class SaveCommandTest {
 
@@ -40,6 +41,7 @@ class SaveCommandTest {
 
             var outputFile = tempDir.resolve("output.txt");
             new SaveCommand(outputFile.toString()).execute(context);
+            context.getSaver().awaitIdle();
 
             assertTrue(Files.exists(outputFile));
             var content = Files.readString(outputFile);
@@ -47,13 +49,53 @@ class SaveCommandTest {
         }
 
         @Test
-        void printsConfirmationMessage(@TempDir Path tempDir) {
+        void inPlaceSaveKeepsFileInSyncWithCanvas(@TempDir Path tempDir) throws Exception {
             context.setCanvas(new Canvas(5, 3));
+            var outputFile = tempDir.resolve("output.txt");
+            new SaveCommand(outputFile.toString(), true).execute(context);
+
+            context.getCanvas().drawLine(new Point(1, 2), new Point(5, 2));
+            new SaveCommand(outputFile.toString(), true).execute(context);
+            context.getSaver().awaitIdle();
+
+            assertEquals(context.getRenderer().render(context.getCanvas()), Files.readString(outputFile));
+        }
+
+        @Test
+        void reportsCompletionOnceWritten(@TempDir Path tempDir) {
+            context.setCanvas(new Canvas(5, 3));
+
+            var outputFile = tempDir.resolve("output.txt");
+            new SaveCommand(outputFile.toString()).execute(context);
+            context.getSaver().awaitIdle();
 
+            var notices = context.getSaver().drainNotices();
+            assertEquals(1, notices.size());
+            assertEquals("Canvas saved to: " + outputFile, notices.get(0).message());
+        }
+
+        @Test
+        void reportsFailureAsNotice(@TempDir Path tempDir) {
+            context.setCanvas(new Canvas(5, 3));
+
+            new SaveCommand(tempDir.resolve("missing/output.txt").toString()).execute(context);
+            context.getSaver().awaitIdle();
+
+            var notice = context.getSaver().drainNotices().get(0);
+            assertTrue(notice.failed());
+            assertTrue(notice.message().startsWith("Failed to save:"));
+        }
+
+        @Test
+        void capturesCanvasAtCommandTime(@TempDir Path tempDir) throws Exception {
+            context.setCanvas(new Canvas(3, 1));
             var outputFile = tempDir.resolve("output.txt");
+
             new SaveCommand(outputFile.toString()).execute(context);
+            context.getCanvas().drawLine(new Point(1, 1), new Point(3, 1));
+            context.getSaver().awaitIdle();
 
-            assertTrue(console.getOutput().contains("Canvas saved to:"));
+            assertEquals("-----\n|   |\n-----\n", Files.readString(outputFile));
         }
 
         @Test
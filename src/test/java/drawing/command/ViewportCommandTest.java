@@ -0,0 +1,79 @@
+package drawing.command;
+
+import drawing.canvas.Viewport;
+import drawing.context.DrawingContext;
+import drawing.exception.DrawingException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests ViewportCommand. Verifies view state changes and origin validation.
+ */
+class ViewportCommandTest {
+
+    private DrawingContext context;
+
+    @BeforeEach
+    void setUp() {
+        context = new DrawingContext();
+    }
+
+    @Nested
+    class Viewing {
+        @Test
+        void setsViewport() {
+            new CreateCanvasCommand(20, 10).execute(context);
+
+            new ViewportCommand(new Viewport(3, 2, 5, 4)).execute(context);
+
+            assertEquals(new Viewport(3, 2, 5, 4), context.getViewport());
+        }
+
+        @Test
+        void resetsToFullCanvas() {
+            new CreateCanvasCommand(20, 10).execute(context);
+            new ViewportCommand(new Viewport(3, 2, 5, 4)).execute(context);
+
+            new ViewportCommand(null).execute(context);
+
+            assertEquals(new Viewport(1, 1, 20, 10), context.getViewport());
+        }
+
+        @Test
+        void newCanvasResetsViewport() {
+            new CreateCanvasCommand(20, 10).execute(context);
+            new ViewportCommand(new Viewport(3, 2, 5, 4)).execute(context);
+
+            new CreateCanvasCommand(8, 6).execute(context);
+
+            assertEquals(new Viewport(1, 1, 8, 6), context.getViewport());
+        }
+    }
+
+    @Nested
+    class Validation {
+        @Test
+        void throwsWhenNoCanvas() {
+            assertThrows(DrawingException.class,
+                    () -> new ViewportCommand(new Viewport(1, 1, 2, 2)).execute(context));
+        }
+
+        @Test
+        void rejectsOriginOutsideCanvas() {
+            new CreateCanvasCommand(5, 4).execute(context);
+
+            assertThrows(DrawingException.class,
+                    () -> new ViewportCommand(new Viewport(6, 1, 2, 2)).execute(context));
+        }
+    }
+
+    @Test
+    void doesNotModifyCanvas() {
+        assertFalse(new ViewportCommand(null).modifiesCanvas());
+    }
+}
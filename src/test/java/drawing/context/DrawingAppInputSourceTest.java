@@ -1,6 +1,7 @@
 package drawing.context;
 
 import drawing.DrawingApp;
+import drawing.io.TestConsole;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -13,6 +14,7 @@ import java.nio.file.Path;
 import java.util.Scanner;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -59,6 +61,17 @@ class DrawingAppInputSourceTest {
             assertTrue(result.contains("------------"));
         }
 
+        @Test
+        void matchesReadmeSampleSession() throws Exception {
+            var output = new ByteArrayOutputStream();
+            System.setOut(new PrintStream(output));
+
+            var scanner = new Scanner(Files.newInputStream(Path.of("examples/readme_session.txt")));
+            new DrawingApp(scanner, false).run();
+
+            assertEquals(Files.readString(Path.of("examples/readme_session.expected")), output.toString());
+        }
+
         @Test
         void handlesBlankLinesInFile(@TempDir Path tempDir) throws Exception {
             var inputFile = tempDir.resolve("commands.txt");
@@ -91,6 +104,30 @@ class DrawingAppInputSourceTest {
         }
     }
 
+    @Nested
+    class SavesInFileMode {
+        @Test
+        void reportsEachSaveBeforeNextCommand(@TempDir Path tempDir) {
+            var saved = tempDir.resolve("out.txt");
+            var missing = tempDir.resolve("missing/out.txt");
+            var script = "C 3 1\nS " + saved + "\nL 1 1 2 1\nS " + missing + "\nL 3 1 3 1\nQ\n";
+            var console = new TestConsole();
+
+            var app = new DrawingApp(new Scanner(script), false, console);
+            app.run();
+
+            var frame = "-----\n|%s|\n-----\n";
+            var output = console.getOutput();
+            var failure = output.substring(output.indexOf("Error: Failed to save: "));
+            assertEquals(frame.formatted("   ")
+                    + "Canvas saved to: " + saved + "\n" + frame.formatted("   ")
+                    + frame.formatted("xx ")
+                    + failure.substring(0, failure.indexOf('\n') + 1) + frame.formatted("xx ")
+                    + frame.formatted("xxx"), output);
+            assertEquals(1, app.getErrorCount());
+        }
+    }
+
     @Nested
     class ErrorsInFileMode {
         @Test
@@ -0,0 +1,164 @@
+package drawing.daemon;
+
+import drawing.canvas.SharedCanvas;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.net.BindException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests daemon round trips over a real Unix domain socket. Uses @TempDir for the socket file.
+ */
+class DrawingDaemonTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path socket;
+    private DrawingDaemon daemon;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        socket = tempDir.resolve("drawing.sock");
+        daemon = DrawingDaemon.bind(socket);
+        var server = new Thread(() -> {
+            try {
+                daemon.serve();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        server.setDaemon(true);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        daemon.close();
+    }
+
+    private String send(String script) throws Exception {
+        var out = new ByteArrayOutputStream();
+        DrawingClient.send(socket, new ByteArrayInputStream(script.getBytes(StandardCharsets.UTF_8)), out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void rendersScriptSentByClient() throws Exception {
+        var output = send("C 5 2\nL 1 1 5 1\nQ\n");
+
+        assertTrue(output.contains("|xxxxx|"));
+        assertFalse(output.contains("enter command:"));
+    }
+
+    @Test
+    void reportsErrorsToClient() throws Exception {
+        var output = send("B 1 1 o\n");
+
+        assertTrue(output.contains("Error: Canvas not created"));
+    }
+
+    @Test
+    void eachConnectionGetsFreshContext() throws Exception {
+        send("C 5 2\n");
+
+        var output = send("L 1 1 5 1\n");
+
+        assertTrue(output.contains("Error: Canvas not created"));
+    }
+
+    @Test
+    void sharedDaemonLetsClientsDrawOnOneCanvas() throws Exception {
+        daemon.close();
+        daemon = DrawingDaemon.bindShared(socket, new SharedCanvas(5, 2));
+        var server = new Thread(() -> {
+            try {
+                daemon.serve();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        server.setDaemon(true);
+        server.start();
+
+        send("L 1 1 5 1\n");
+        var output = send("L 1 2 5 2\nU\nC 3 3\n");
+
+        assertTrue(output.contains("|xxxxx|\n|xxxxx|"));
+        assertTrue(output.contains("|xxxxx|\n|     |"));
+        assertTrue(output.contains("Error: Not available on a shared canvas"));
+    }
+
+    @Test
+    void resolvesFileNamesAgainstClientWorkingDirectory() throws Exception {
+        var clientDir = Files.createDirectory(tempDir.resolve("client"));
+        var script = "C 3 1\nS out.txt\nQ\n".getBytes(StandardCharsets.UTF_8);
+
+        DrawingClient.send(socket, clientDir, new ByteArrayInputStream(script), new ByteArrayOutputStream());
+
+        assertTrue(Files.exists(clientDir.resolve("out.txt")));
+    }
+
+    @Test
+    void runsScriptsSentWithoutHandshake() throws Exception {
+        try (var channel = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            channel.connect(UnixDomainSocketAddress.of(socket));
+            Channels.newOutputStream(channel).write("C 5 2\nL 1 1 5 1\n".getBytes(StandardCharsets.UTF_8));
+            channel.shutdownOutput();
+            var output = new String(Channels.newInputStream(channel).readAllBytes(), StandardCharsets.UTF_8);
+
+            assertTrue(output.contains("|xxxxx|"));
+        }
+    }
+
+    @Test
+    void refusesToBindOverRegularFile() throws Exception {
+        var file = Files.writeString(tempDir.resolve("notes.txt"), "keep me");
+
+        var e = assertThrows(BindException.class, () -> DrawingDaemon.bind(file));
+
+        assertTrue(e.getMessage().startsWith("Address in use"));
+        assertEquals("keep me", Files.readString(file));
+    }
+
+    @Test
+    void refusesToBindOverLiveDaemon() throws Exception {
+        var e = assertThrows(BindException.class, () -> DrawingDaemon.bind(socket));
+
+        assertTrue(e.getMessage().startsWith("Address in use"));
+        assertTrue(send("C 5 2\nL 1 1 5 1\n").contains("|xxxxx|"));
+    }
+
+    @Test
+    void replacesStaleSocket() throws Exception {
+        var stale = tempDir.resolve("stale.sock");
+        ServerSocketChannel.open(StandardProtocolFamily.UNIX).bind(UnixDomainSocketAddress.of(stale)).close();
+        assertTrue(Files.exists(stale));
+
+        DrawingDaemon.bind(stale).close();
+    }
+
+    @Test
+    void removesSocketFileOnClose() throws Exception {
+        daemon.close();
+
+        assertFalse(Files.exists(socket));
+    }
+}
@@ -0,0 +1,51 @@
+package drawing.io;
+
+import drawing.exception.DrawingException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests SystemConsole over an in-memory stream: text and pre-encoded frames keep their order.
+ */
+class SystemConsoleTest {
+
+    @Test
+    void writesFrameBytesInOrderWithText() {
+        var bytes = new ByteArrayOutputStream();
+        var out = new PrintStream(bytes, false, StandardCharsets.UTF_8);
+        var console = new SystemConsole(out, out);
+
+        console.print("enter command: ");
+        console.printFrame(new ByteBuffer[]{
+                ByteBuffer.wrap("---\n".getBytes(StandardCharsets.UTF_8)),
+                ByteBuffer.wrap("|o|\n".getBytes(StandardCharsets.UTF_8)).asReadOnlyBuffer()});
+        console.println("done");
+
+        assertEquals("enter command: ---\n|o|\ndone" + System.lineSeparator(), bytes.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void closedOutputFailsFrameAsDrawingException() {
+        var out = new PrintStream(new ByteArrayOutputStream(), false, StandardCharsets.UTF_8);
+        var closed = Channels.newChannel(new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        });
+        var console = new SystemConsole(out, out, closed);
+        var frame = new ByteBuffer[]{ByteBuffer.wrap("|o|\n".getBytes(StandardCharsets.UTF_8))};
+
+        assertThrows(DrawingException.class, () -> console.printFrame(frame));
+    }
+}
@@ -1,15 +1,25 @@
 package drawing.parser;
 
 import drawing.canvas.Point;
+import drawing.canvas.Viewport;
 import drawing.command.BucketFillCommand;
+import drawing.command.CopyRegionCommand;
 import drawing.command.CreateCanvasCommand;
+import drawing.command.CutRegionCommand;
 import drawing.command.DrawLineCommand;
 import drawing.command.DrawRectangleCommand;
+import drawing.command.ExportCommand;
 import drawing.command.HelpCommand;
+import drawing.command.MapCanvasCommand;
+import drawing.command.MoveRegionCommand;
+import drawing.command.PasteCommand;
 import drawing.command.QuitCommand;
 import drawing.command.RedoCommand;
+import drawing.command.ReplaceColorCommand;
 import drawing.command.SaveCommand;
 import drawing.command.UndoCommand;
+import drawing.command.ViewportCommand;
+import drawing.context.DrawingContext;
 import drawing.exception.DrawingException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
@@ -20,6 +30,7 @@ import org.junit.jupiter.params.provider.ValueSource;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -58,6 +69,16 @@ class CommandParserTest {
             var cmd = parser.parse("  C   20   4  ");
             assertInstanceOf(CreateCanvasCommand.class, cmd);
         }
+
+        @Test
+        void parsesMappedCanvasCreation() {
+            assertEquals(new MapCanvasCommand("big.canvas", 5000, 3000), parser.parse("C 5000 3000 big.canvas"));
+        }
+
+        @Test
+        void parsesMappedCanvasOpen() {
+            assertEquals(new MapCanvasCommand("big.canvas"), parser.parse("C big.canvas"));
+        }
     }
 
     @Nested
@@ -131,6 +152,19 @@ class CommandParserTest {
             assertEquals("output.txt", s.filename());
         }
 
+        @Test
+        void parsesInPlaceSave() {
+            var cmd = (SaveCommand) parser.parse("S output.txt inplace");
+
+            assertEquals("output.txt", cmd.filename());
+            assertTrue(cmd.inPlace());
+        }
+
+        @Test
+        void rejectsUnknownSaveOption() {
+            assertThrows(DrawingException.class, () -> parser.parse("S output.txt fast"));
+        }
+
         @Test
         void rejectsSaveWithoutFilename() {
             var ex = assertThrows(DrawingException.class,
@@ -139,6 +173,101 @@ class CommandParserTest {
         }
     }
 
+    @Nested
+    class Replace {
+        @Test
+        void parsesReplaceColor() {
+            assertEquals(new ReplaceColorCommand('o', '.'), parser.parse("A o ."));
+        }
+
+        @Test
+        void rejectsMultiCharColor() {
+            var ex = assertThrows(DrawingException.class, () -> parser.parse("A oo ."));
+            assertTrue(ex.getMessage().contains("single character"));
+        }
+
+        @Test
+        void requiresTwoColors() {
+            var ex = assertThrows(DrawingException.class, () -> parser.parse("A o"));
+            assertTrue(ex.getMessage().contains("Usage"));
+        }
+    }
+
+    @Nested
+    class Clips {
+        @Test
+        void parsesCopyWithDefaultName() {
+            assertEquals(new CopyRegionCommand(new Point(1, 2), new Point(3, 4), DrawingContext.DEFAULT_CLIP),
+                    parser.parse("Y 1 2 3 4"));
+        }
+
+        @Test
+        void parsesNamedCut() {
+            assertEquals(new CutRegionCommand(new Point(1, 2), new Point(3, 4), "tree"),
+                    parser.parse("k 1 2 3 4 tree"));
+        }
+
+        @Test
+        void parsesPaste() {
+            assertEquals(new PasteCommand(new Point(5, 6), "tree"), parser.parse("P 5 6 tree"));
+            assertEquals(new PasteCommand(new Point(5, 6), DrawingContext.DEFAULT_CLIP), parser.parse("P 5 6"));
+        }
+
+        @Test
+        void parsesMove() {
+            assertEquals(new MoveRegionCommand(new Point(1, 1), new Point(2, 2), new Point(3, 3)),
+                    parser.parse("M 1 1 2 2 3 3"));
+        }
+
+        @Test
+        void rejectsWrongArgumentCounts() {
+            var ex = assertThrows(DrawingException.class, () -> parser.parse("Y 1 2 3"));
+            assertTrue(ex.getMessage().contains("Y <x1>"));
+            assertThrows(DrawingException.class, () -> parser.parse("P 1"));
+            assertThrows(DrawingException.class, () -> parser.parse("M 1 1 2 2 3"));
+        }
+    }
+
+    @Nested
+    class Export {
+        @Test
+        void parsesImageFile() {
+            assertEquals(new ExportCommand("out.png"), parser.parse("E out.png"));
+        }
+
+        @Test
+        void requiresFileName() {
+            assertThrows(DrawingException.class, () -> parser.parse("E"));
+        }
+    }
+
+    @Nested
+    class ViewportWindow {
+        @Test
+        void parsesViewportCommand() {
+            var cmd = parser.parse("V 3 2 10 5");
+
+            assertInstanceOf(ViewportCommand.class, cmd);
+            assertEquals(new Viewport(3, 2, 10, 5), ((ViewportCommand) cmd).viewport());
+            assertFalse(cmd.modifiesCanvas());
+        }
+
+        @Test
+        void parsesViewportReset() {
+            var cmd = parser.parse("V");
+
+            assertInstanceOf(ViewportCommand.class, cmd);
+            assertNull(((ViewportCommand) cmd).viewport());
+        }
+
+        @Test
+        void rejectsPartialViewport() {
+            var ex = assertThrows(DrawingException.class,
+                    () -> parser.parse("V 3 2"));
+            assertTrue(ex.getMessage().contains("Usage"));
+        }
+    }
+
     @Nested
     class UndoRedo {
         @Test